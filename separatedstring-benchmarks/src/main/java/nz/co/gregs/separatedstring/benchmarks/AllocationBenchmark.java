@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import nz.co.gregs.separatedstring.Decoder;
+import nz.co.gregs.separatedstring.Encoder;
+import nz.co.gregs.separatedstring.SeparatedFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The encode and decode operations whose allocation is checked by the {@link AllocationGate}.
+ *
+ * <p>
+ * Each operation processes 1000 fields so the budgets can be read as roughly a thousandth of a field's allocation.</p>
+ *
+ * @author gregorygraham
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+
+  public static final int FIELDS = 1000;
+
+  @Param({"CSV", "COMMAS"})
+  public Preset preset;
+
+  private List<Object> values;
+  private String input;
+  private Encoder encoder;
+  private Decoder decoder;
+  private SeparatedFormat format;
+
+  @Setup
+  public void setup() {
+    values = Values.plain(FIELDS, 42);
+    encoder = preset.builder().encoder();
+    decoder = preset.builder().decoder();
+    format = preset.builder().compile();
+    input = encoder.encode(values);
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(values);
+  }
+
+  @Benchmark
+  public StringBuilder encodeTo() {
+    return format.encodeTo(new StringBuilder(input.length() + 16), values);
+  }
+
+  @Benchmark
+  public List<String> decodeToList() {
+    return decoder.decodeToList(input);
+  }
+
+  @Benchmark
+  public List<List<String>> decodeToLines() {
+    return decoder.decodeToLines(input);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link AllocationBenchmark} with the GC profiler and fails if any operation allocates more than its budget.
+ *
+ * <p>
+ * The budgets, in bytes per operation, are in allocation-budgets.properties. Use {@code mvn -P allocation-gate verify} to run the gate. When an optimisation
+ * reduces allocation lower the budget so the improvement can't be lost later.</p>
+ *
+ * @author gregorygraham
+ */
+public class AllocationGate {
+
+  private static final String ALLOCATION_PER_OPERATION = "gc.alloc.rate.norm";
+  private static final String BUDGETS = "/allocation-budgets.properties";
+
+  private AllocationGate() {
+  }
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    final Properties budgets = new Properties();
+    try (InputStream stream = AllocationGate.class.getResourceAsStream(BUDGETS)) {
+      budgets.load(stream);
+    }
+    final Options options = new OptionsBuilder()
+            .include(AllocationBenchmark.class.getName())
+            .addProfiler(GCProfiler.class)
+            .build();
+    final Collection<RunResult> results = new Runner(options).run();
+
+    final List<String> failures = new ArrayList<>();
+    final TreeSet<String> unbudgeted = new TreeSet<>();
+    for (RunResult result : results) {
+      final String name = nameOf(result);
+      final Result<?> allocation = result.getSecondaryResults().get(ALLOCATION_PER_OPERATION);
+      final String budget = budgets.getProperty(name);
+      if (allocation == null) {
+        failures.add(name + ": no allocation was measured");
+      } else if (budget == null) {
+        unbudgeted.add(name + "=" + Math.round(allocation.getScore()));
+      } else if (allocation.getScore() > Double.parseDouble(budget)) {
+        failures.add(String.format("%s: allocated %.0f bytes/op, budget is %s bytes/op", name, allocation.getScore(), budget));
+      } else {
+        System.out.printf("%s: allocated %.0f bytes/op, within budget of %s bytes/op%n", name, allocation.getScore(), budget);
+      }
+    }
+    for (String missing : unbudgeted) {
+      failures.add("no budget recorded for " + missing);
+    }
+    if (!failures.isEmpty()) {
+      failures.forEach(System.err::println);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * The benchmark method and its parameters, for instance "decodeToList.CSV".
+   */
+  private static String nameOf(RunResult result) {
+    final String benchmark = result.getParams().getBenchmark();
+    final StringBuilder name = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.') + 1));
+    for (String key : result.getParams().getParamsKeys()) {
+      name.append('.').append(result.getParams().getParam(key));
+    }
+    return name.toString();
+  }
+}
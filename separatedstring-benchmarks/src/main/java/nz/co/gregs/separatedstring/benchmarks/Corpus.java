@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import nz.co.gregs.separatedstring.Builder;
+import nz.co.gregs.separatedstring.Encoder;
+
+/**
+ * Generates repeatable workloads for any Builder configuration.
+ *
+ * <p>
+ * The same shape, size, and seed always produce the same values so measurements can be compared between runs and versions. Heavy escape and worst case
+ * workloads are built from the separators, wrapping, prefix, and suffix the configuration actually produces so they exercise its escaping.</p>
+ *
+ * <p>
+ * Corpora can be written to a file for soak tests with
+ * {@code java -cp target/benchmarks.jar nz.co.gregs.separatedstring.benchmarks.Corpus CSV HEAVY_ESCAPES 100000 42 > corpus.csv}</p>
+ *
+ * @author gregorygraham
+ */
+public final class Corpus {
+
+  private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+  // characters commonly used as separators, wrapping, and escapes
+  private static final String SPECIALS = ",;|\t\n\"'\\=!~<>[]{}() ";
+  private static final int TABLE_COLUMNS = 5;
+  private static final int WIDE_COLUMNS = 200;
+
+  /**
+   * The kinds of workload that can be generated.
+   */
+  public enum Shape {
+    /**
+     * Lines of 200 mixed text and number values, added with addLine.
+     */
+    WIDE_ROWS,
+    /**
+     * A long list of numeric and UUID style identifiers.
+     */
+    ID_LIST,
+    /**
+     * Keys and values added with add(key, value), configure a key-value separator to see the keys.
+     */
+    KEY_VALUES,
+    /**
+     * Values full of the configuration's separators, wrapping, and escape characters.
+     */
+    HEAVY_ESCAPES,
+    /**
+     * Many lines of 5 values, added with addLine.
+     */
+    TABLE,
+    /**
+     * A single enormous value that is mostly tokens, the worst case for scanning and escaping.
+     */
+    WORST_CASE
+  }
+
+  private final Shape shape;
+  private final long seed;
+  private final List<Object> values;
+  private final String encoded;
+
+  private Corpus(Shape shape, long seed, List<Object> values, String encoded) {
+    this.shape = shape;
+    this.seed = seed;
+    this.values = Collections.unmodifiableList(values);
+    this.encoded = encoded;
+  }
+
+  /**
+   * Generates the workload.
+   *
+   * @param builder the configuration to generate the workload for, it is not changed
+   * @param shape the kind of workload
+   * @param size the number of values, or characters for {@link Shape#WORST_CASE}
+   * @param seed the seed, the same seed always produces the same workload
+   * @return the generated workload
+   */
+  public static Corpus generate(Builder builder, Shape shape, int size, long seed) {
+    final Random random = new Random(seed);
+    final Encoder encoder = builder.encoder();
+    final List<Object> values = new ArrayList<>(size);
+    switch (shape) {
+      case WIDE_ROWS:
+        addLines(encoder, values, size, WIDE_COLUMNS, random);
+        break;
+      case TABLE:
+        addLines(encoder, values, size, TABLE_COLUMNS, random);
+        break;
+      case ID_LIST:
+        for (int i = 0; i < size; i++) {
+          final Object id = random.nextBoolean()
+                  ? (Object) (1_000_000L + random.nextInt(Integer.MAX_VALUE))
+                  : new java.util.UUID(random.nextLong(), random.nextLong()).toString();
+          encoder.add(id);
+          values.add(id);
+        }
+        break;
+      case KEY_VALUES:
+        for (int i = 0; i < size; i++) {
+          final String value = word(random, 3 + random.nextInt(12));
+          encoder.add("key" + i, value);
+          values.add(value);
+        }
+        break;
+      case HEAVY_ESCAPES: {
+        final List<String> tokens = tokensOf(builder);
+        for (int i = 0; i < size; i++) {
+          final String value = escapeHeavy(random, tokens, 5 + random.nextInt(20));
+          encoder.add(value);
+          values.add(value);
+        }
+        break;
+      }
+      case WORST_CASE: {
+        final String value = escapeHeavy(random, tokensOf(builder), size);
+        encoder.add(value);
+        values.add(value);
+        break;
+      }
+      default:
+        throw new IllegalArgumentException("Unknown shape " + shape);
+    }
+    return new Corpus(shape, seed, values, encoder.encode());
+  }
+
+  private static void addLines(Encoder encoder, List<Object> values, int size, int columns, Random random) {
+    for (int added = 0; added < size;) {
+      final int width = Math.min(columns, size - added);
+      final Object[] line = new Object[width];
+      for (int column = 0; column < width; column++) {
+        line[column] = column % 3 == 1 ? (Object) random.nextInt(100_000) : word(random, 3 + random.nextInt(10));
+        values.add(line[column]);
+      }
+      encoder.addLine(toStrings(line));
+      added += width;
+    }
+  }
+
+  private static String[] toStrings(Object[] line) {
+    final String[] strings = new String[line.length];
+    for (int i = 0; i < line.length; i++) {
+      strings[i] = line[i].toString();
+    }
+    return strings;
+  }
+
+  private static String word(Random random, int length) {
+    final StringBuilder word = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+    }
+    return word.toString();
+  }
+
+  private static String escapeHeavy(Random random, List<String> tokens, int length) {
+    final StringBuilder value = new StringBuilder(length + 8);
+    while (value.length() < length) {
+      if (random.nextInt(4) == 0) {
+        value.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+      } else {
+        value.append(tokens.get(random.nextInt(tokens.size())));
+      }
+    }
+    return value.toString();
+  }
+
+  /**
+   * Finds the sequences the configuration places around and between values by encoding 2 probe values, then adds the common special characters.
+   */
+  private static List<String> tokensOf(Builder builder) {
+    final String first = "\u0001";
+    final String second = "\u0002";
+    final String probe = builder.encoder().encode(first, second);
+    final List<String> tokens = new ArrayList<>();
+    final int firstIndex = probe.indexOf(first);
+    final int secondIndex = probe.indexOf(second);
+    if (firstIndex >= 0 && secondIndex > firstIndex) {
+      addToken(tokens, probe.substring(0, firstIndex));
+      addToken(tokens, probe.substring(firstIndex + 1, secondIndex));
+      addToken(tokens, probe.substring(secondIndex + 1));
+    }
+    for (char special : SPECIALS.toCharArray()) {
+      addToken(tokens, String.valueOf(special));
+    }
+    return tokens;
+  }
+
+  private static void addToken(List<String> tokens, String token) {
+    if (!token.isEmpty() && !tokens.contains(token)) {
+      tokens.add(token);
+    }
+  }
+
+  public Shape getShape() {
+    return shape;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * The generated values in the order they were added, without keys or line breaks.
+   *
+   * @return the values
+   */
+  public List<Object> getValues() {
+    return values;
+  }
+
+  /**
+   * The values encoded with the configuration.
+   *
+   * @return the encoding of the corpus
+   */
+  public String getEncoded() {
+    return encoded;
+  }
+
+  /**
+   * Writes an encoded corpus to standard out.
+   *
+   * @param args the preset, the shape, the size, and optionally the seed, for instance "CSV HEAVY_ESCAPES 100000 42"
+   */
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      System.err.println("Usage: Corpus <" + java.util.Arrays.toString(Preset.values()) + "> <" + java.util.Arrays.toString(Shape.values()) + "> <size> [seed]");
+      System.exit(1);
+    }
+    final Preset preset = Preset.valueOf(args[0]);
+    final Shape shape = Shape.valueOf(args[1]);
+    final int size = Integer.parseInt(args[2]);
+    final long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+    System.out.print(generate(preset.builder(), shape, size, seed).getEncoded());
+  }
+}
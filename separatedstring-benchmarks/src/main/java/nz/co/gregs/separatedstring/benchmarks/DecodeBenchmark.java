@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import nz.co.gregs.separatedstring.Decoder;
+import nz.co.gregs.separatedstring.SeparatedFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding the encodings of each preset, from a few fields to about 10MB of input.
+ *
+ * @author gregorygraham
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+
+  @Param({"CSV", "TSV", "COMMAS", "HTML_ORDERED_LIST", "HTML_UNORDERED_LIST", "MULTI_CHAR"})
+  public Preset preset;
+
+  // 1000000 fields of about 10 characters is about 10MB
+  @Param({"10", "1000", "100000", "1000000"})
+  public int fields;
+
+  private String input;
+  private String keyValueInput;
+  private Decoder decoder;
+  private Decoder keyValueDecoder;
+  private SeparatedFormat format;
+  private Pattern separator;
+
+  @Setup
+  public void setup() {
+    final List<Object> values = Values.plain(fields, 40);
+    input = preset.builder().encoder().encode(values);
+    decoder = preset.builder().decoder();
+    format = preset.builder().compile();
+    separator = Pattern.compile(Pattern.quote(preset.separator()));
+
+    final Map<String, Object> keyValues = new java.util.LinkedHashMap<>();
+    for (int i = 0; i < values.size(); i++) {
+      keyValues.put("key" + i, values.get(i));
+    }
+    keyValueInput = preset.builder().withKeyValueSeparator("=").encoder().addAllObjectMap(keyValues).encode();
+    keyValueDecoder = preset.builder().withKeyValueSeparator("=").decoder();
+  }
+
+  @Benchmark
+  public List<String> decodeToList() {
+    return decoder.decodeToList(input);
+  }
+
+  @Benchmark
+  public List<List<String>> decodeToLines() {
+    return decoder.decodeToLines(input);
+  }
+
+  @Benchmark
+  public Map<String, String> decodeToMap() {
+    return keyValueDecoder.decodeToMap(keyValueInput);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public List<String> decodeSharedFormat() {
+    return format.decodeToList(input);
+  }
+
+  @Benchmark
+  public String[] baselineStringSplit() {
+    return separator.split(input);
+  }
+}
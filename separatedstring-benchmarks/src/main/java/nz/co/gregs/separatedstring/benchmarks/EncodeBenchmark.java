@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import nz.co.gregs.separatedstring.Encoder;
+import nz.co.gregs.separatedstring.SeparatedFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding values with each preset, from a few fields to about 10MB of output.
+ *
+ * @author gregorygraham
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeBenchmark {
+
+  @Param({"CSV", "TSV", "COMMAS", "HTML_ORDERED_LIST", "HTML_UNORDERED_LIST", "MULTI_CHAR"})
+  public Preset preset;
+
+  // 1000000 fields of about 10 characters is about 10MB
+  @Param({"10", "1000", "100000", "1000000"})
+  public int fields;
+
+  private List<Object> values;
+  private List<String> strings;
+  private Encoder encoder;
+  private SeparatedFormat format;
+
+  @Setup
+  public void setup() {
+    values = Values.plain(fields, 40);
+    strings = new ArrayList<>(fields);
+    for (Object value : values) {
+      strings.add(value.toString());
+    }
+    encoder = preset.builder().encoder();
+    format = preset.builder().compile();
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(values);
+  }
+
+  @Benchmark
+  public String encodeAddedValues() {
+    // a new encoder each time as an unchanged encoder returns its previous encoding
+    return preset.builder().encoder().addAll(values).encode();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public String encodeSharedFormat() {
+    return format.encode(values);
+  }
+
+  @Benchmark
+  public String baselineStringJoin() {
+    return String.join(preset.separator(), strings);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.util.function.Supplier;
+import nz.co.gregs.separatedstring.Builder;
+
+/**
+ * The configurations used by the benchmarks.
+ *
+ * @author gregorygraham
+ */
+public enum Preset {
+
+  CSV(Builder::csv, ", "),
+  TSV(Builder::tsv, "\t"),
+  COMMAS(Builder::byCommas, ","),
+  HTML_ORDERED_LIST(Builder::htmlOrderedList, "\n"),
+  HTML_UNORDERED_LIST(Builder::htmlUnorderedList, "\n"),
+  /**
+   * The multi-character dialect used by the integration tests.
+   */
+  MULTI_CHAR(() -> Builder.byTabs()
+          .withThisBeforeEachTerm("~\"")
+          .withThisAfterEachTerm("\"~")
+          .withEscapeChar("==")
+          .withPrefix("START")
+          .withSuffix("END"), "\t");
+
+  private final Supplier<Builder> builder;
+  private final String separator;
+
+  private Preset(Supplier<Builder> builder, String separator) {
+    this.builder = builder;
+    this.separator = separator;
+  }
+
+  /**
+   * A new builder for this configuration.
+   *
+   * @return a new builder
+   */
+  public Builder builder() {
+    return builder.get();
+  }
+
+  /**
+   * The separator used by this configuration, for the String.split and String.join baselines.
+   *
+   * @return the separator
+   */
+  public String separator() {
+    return separator;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the values to be encoded by the benchmarks.
+ *
+ * @author gregorygraham
+ */
+public class Values {
+
+  private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+  private Values() {
+  }
+
+  /**
+   * Creates the same plain values for the same count and seed, about 10 characters each.
+   *
+   * @param count the number of values
+   * @param seed the seed for the random values
+   * @return the values
+   */
+  public static List<Object> plain(int count, long seed) {
+    final Random random = new Random(seed);
+    final List<Object> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final StringBuilder value = new StringBuilder(12);
+      for (int length = 5 + random.nextInt(10); length > 0; length--) {
+        value.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+      }
+      values.add(value.toString());
+    }
+    return values;
+  }
+}
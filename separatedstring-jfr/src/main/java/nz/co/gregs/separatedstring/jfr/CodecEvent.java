@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Flight Recorder event committed by {@link JfrCodecMetrics} for a slow or oversized operation.
+ *
+ * <p>
+ * The event is recorded after the operation has completed so the elapsed time is a field of the event rather than the event's own duration.</p>
+ *
+ * @author gregorygraham
+ */
+@Name("nz.co.gregs.separatedstring.Codec")
+@Label("SeparatedString Operation")
+@Description("A slow or oversized SeparatedString encoding or decoding")
+@Category({"SeparatedString"})
+@StackTrace(true)
+public final class CodecEvent extends Event {
+
+  @Label("Operation")
+  @Description("Either encode or decode")
+  String operation;
+
+  @Label("Fingerprint")
+  @Description("Identifies the settings of the SeparatedString")
+  String fingerprint;
+
+  @Label("Engine")
+  @Description("The implementation that performed the operation")
+  String engine;
+
+  @Label("Input Characters")
+  @Description("The characters read by the operation")
+  long inputLength;
+
+  @Label("Output Characters")
+  @Description("The characters produced by the operation")
+  long outputLength;
+
+  @Label("Fields")
+  int fields;
+
+  @Label("Lines")
+  int lines;
+
+  @Label("Escapes")
+  int escapes;
+
+  @Label("Elapsed")
+  @Timespan(Timespan.NANOSECONDS)
+  long elapsed;
+}
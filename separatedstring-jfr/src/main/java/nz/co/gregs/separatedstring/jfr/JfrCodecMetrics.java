@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.jfr;
+
+import java.time.Duration;
+import nz.co.gregs.separatedstring.CodecMetrics;
+
+/**
+ * Records slow or oversized encode and decode operations as Java Flight Recorder events.
+ *
+ * <p>
+ * Install with {@code Builder.withMetrics(new JfrCodecMetrics())}, the {@link CodecEvent} is then available in any recording that enables
+ * "nz.co.gregs.separatedstring.Codec". Only operations that take longer than the time threshold, or read or produce more characters than the size
+ * threshold, are recorded so continuous recording is not flooded by the many small operations.</p>
+ *
+ * <p>
+ * Returning a retained encoding, reported as {@link CodecMetrics.Engine#CACHED}, does not encode anything so the size threshold is not applied to it.</p>
+ *
+ * @author gregorygraham
+ */
+public class JfrCodecMetrics implements CodecMetrics {
+
+  /**
+   * Operations slower than this are recorded by default.
+   */
+  public static final Duration DEFAULT_DURATION_THRESHOLD = Duration.ofMillis(10);
+
+  /**
+   * Operations that read or produce at least this many characters are recorded by default.
+   */
+  public static final long DEFAULT_SIZE_THRESHOLD = 1_000_000;
+
+  private final long nanosThreshold;
+  private final long sizeThreshold;
+
+  /**
+   * Records operations that take at least 10 milliseconds or read or produce at least a million characters.
+   */
+  public JfrCodecMetrics() {
+    this(DEFAULT_DURATION_THRESHOLD, DEFAULT_SIZE_THRESHOLD);
+  }
+
+  /**
+   * Records operations that are at least as slow, or as large, as the thresholds.
+   *
+   * @param durationThreshold operations that take at least this long are recorded
+   * @param sizeThreshold operations that read or produce at least this many characters are recorded
+   */
+  public JfrCodecMetrics(Duration durationThreshold, long sizeThreshold) {
+    this.nanosThreshold = durationThreshold.toNanos();
+    this.sizeThreshold = sizeThreshold;
+  }
+
+  @Override
+  public void encoded(Operation operation) {
+    record("encode", operation);
+  }
+
+  @Override
+  public void decoded(Operation operation) {
+    record("decode", operation);
+  }
+
+  private void record(String name, Operation operation) {
+    if (operation.getNanos() >= nanosThreshold || isOversized(operation)) {
+      final CodecEvent event = new CodecEvent();
+      if (event.isEnabled()) {
+        event.operation = name;
+        event.fingerprint = operation.getFingerprint();
+        event.engine = operation.getEngine().name();
+        event.inputLength = operation.getCharsIn();
+        event.outputLength = operation.getCharsOut();
+        event.fields = operation.getFields();
+        event.lines = operation.getLines();
+        event.escapes = operation.getEscapes();
+        event.elapsed = operation.getNanos();
+        event.commit();
+      }
+    }
+  }
+
+  private boolean isOversized(Operation operation) {
+    // a cached encoding reports the size of the encoding it returned, but none of those characters were processed
+    return operation.getEngine() != Engine.CACHED
+            && (operation.getCharsIn() >= sizeThreshold || operation.getCharsOut() >= sizeThreshold);
+  }
+}
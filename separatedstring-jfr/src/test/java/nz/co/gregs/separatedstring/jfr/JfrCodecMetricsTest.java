@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import nz.co.gregs.separatedstring.Builder;
+import nz.co.gregs.separatedstring.Decoder;
+import nz.co.gregs.separatedstring.Encoder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author gregorygraham
+ */
+public class JfrCodecMetricsTest {
+
+  public JfrCodecMetricsTest() {
+  }
+
+  @Test
+  public void testOnlyOversizedOperationsAreRecorded() throws Exception {
+    JfrCodecMetrics metrics = new JfrCodecMetrics(Duration.ofDays(1), 100);
+    Encoder encoder = Builder.csv().withMetrics(metrics).encoder();
+    Decoder decoder = Builder.csv().withMetrics(metrics).decoder();
+    String large = String.join("", Collections.nCopies(100, "x"));
+
+    List<RecordedEvent> events = record(() -> {
+      decoder.decodeToList(encoder.encode("small", "values"));
+      decoder.decodeToList(encoder.encode(large, "values"));
+    });
+
+    assertThat(events.size(), is(2));
+    RecordedEvent encoded = events.get(0);
+    assertThat(encoded.getString("operation"), is("encode"));
+    assertThat(encoded.getString("engine"), is("COMPILED"));
+    assertThat(encoded.getString("fingerprint").length(), is(8));
+    assertThat(encoded.getLong("inputLength"), is(106L));
+    // the lengths are counts of characters rather than amounts of data
+    assertThat(encoded.getEventType().getField("inputLength").getContentType(), is(nullValue()));
+    assertThat(encoded.getInt("fields"), is(2));
+    assertThat(encoded.getInt("lines"), is(1));
+    RecordedEvent decoded = events.get(1);
+    assertThat(decoded.getString("operation"), is("decode"));
+    assertThat(decoded.getString("fingerprint"), is(encoded.getString("fingerprint")));
+    assertThat(decoded.getLong("outputLength"), is(106L));
+    assertThat(decoded.getInt("fields"), is(2));
+  }
+
+  @Test
+  public void testSlowOperationsAreRecorded() throws Exception {
+    Encoder encoder = Builder.csv().withMetrics(new JfrCodecMetrics(Duration.ZERO, Long.MAX_VALUE)).encoder();
+
+    List<RecordedEvent> events = record(() -> encoder.encode("small", "values"));
+
+    assertThat(events.size(), is(1));
+    assertThat(events.get(0).getLong("elapsed"), greaterThanOrEqualTo(0L));
+  }
+
+  @Test
+  public void testCachedEncodingsAreNotOversized() throws Exception {
+    Encoder encoder = Builder.csv().withMetrics(new JfrCodecMetrics(Duration.ofDays(1), 100)).encoder();
+    encoder.add(String.join("", Collections.nCopies(100, "x")));
+
+    List<RecordedEvent> events = record(() -> {
+      encoder.toString();
+      encoder.toString();
+    });
+
+    assertThat(events.size(), is(1));
+    assertThat(events.get(0).getString("engine"), is(not("CACHED")));
+  }
+
+  private static List<RecordedEvent> record(Runnable operations) throws Exception {
+    Path file = Files.createTempFile("separatedstring", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(CodecEvent.class);
+      recording.start();
+      operations.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    try {
+      return RecordingFile.readAllEvents(file).stream()
+              .filter(event -> event.getEventType().getName().equals("nz.co.gregs.separatedstring.Codec"))
+              .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+              .collect(Collectors.toList());
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a codec for the annotated record at compile time.
+ *
+ * <p>
+ * For a record {@code Host(String name, int port)} the processor generates {@code HostCodec} in the same package with static {@code encode},
+ * {@code encodeTo}, and {@code decode} methods. The codec reads the record's components through their accessors and parses each column directly into the
+ * component's type, so no reflection is used at runtime. The encoding and decoding is performed by a compiled
+ * {@link nz.co.gregs.separatedstring.SeparatedFormat} so the generated codec follows exactly the same rules as SeparatedString.</p>
+ *
+ * <p>
+ * Components may be Strings, primitives and their wrappers, BigDecimal, BigInteger, UUID, enums, and the java.time types that provide a
+ * {@code parse(CharSequence)} method. An empty column decodes to null for all types except String and the primitives. A primitive component can't be
+ * null so an empty column for it is rejected with an IllegalArgumentException naming the component.</p>
+ *
+ * @author gregorygraham
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface SeparatedRecord {
+
+  /**
+   * The separator placed between the values.
+   *
+   * @return the separator, a comma by default
+   */
+  String separator() default ",";
+
+  /**
+   * The sequence placed before and after each value, a quote for instance.
+   *
+   * @return the wrapping sequence, none by default
+   */
+  String wrap() default "";
+
+  /**
+   * The escape sequence used to protect separators and wrapping within values.
+   *
+   * @return the escape sequence, none by default
+   */
+  String escape() default "";
+
+  /**
+   * The name of the generated class.
+   *
+   * @return the name of the generated class, by default the record's name followed by "Codec"
+   */
+  String codecName() default "";
+}
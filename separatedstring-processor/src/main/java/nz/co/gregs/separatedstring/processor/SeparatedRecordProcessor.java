@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the codecs for records annotated with {@link SeparatedRecord}.
+ *
+ * @author gregorygraham
+ */
+@SupportedAnnotationTypes("nz.co.gregs.separatedstring.processor.SeparatedRecord")
+public class SeparatedRecordProcessor extends AbstractProcessor {
+
+  // the types that can be created from a String with a static parse method
+  private static final Set<String> PARSEABLE_TYPES = Set.of(
+          "java.time.Instant",
+          "java.time.LocalDate",
+          "java.time.LocalDateTime",
+          "java.time.LocalTime",
+          "java.time.OffsetDateTime",
+          "java.time.OffsetTime",
+          "java.time.ZonedDateTime",
+          "java.time.Duration",
+          "java.time.Period",
+          "java.time.Year",
+          "java.time.YearMonth"
+  );
+
+  // the wrapper classes and how to create them from a String
+  private static final Map<String, String> WRAPPER_PARSERS = Map.of(
+          "java.lang.Integer", "Integer.valueOf(%s)",
+          "java.lang.Long", "Long.valueOf(%s)",
+          "java.lang.Double", "Double.valueOf(%s)",
+          "java.lang.Float", "Float.valueOf(%s)",
+          "java.lang.Boolean", "Boolean.valueOf(%s)",
+          "java.lang.Short", "Short.valueOf(%s)",
+          "java.lang.Byte", "Byte.valueOf(%s)",
+          "java.lang.Character", "Character.valueOf(%s.charAt(0))",
+          "java.math.BigDecimal", "new java.math.BigDecimal(%s)",
+          "java.math.BigInteger", "new java.math.BigInteger(%s)"
+  );
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(SeparatedRecord.class)) {
+      if (element.getKind() != ElementKind.RECORD) {
+        error(element, "@SeparatedRecord can only be used on records");
+      } else if (!((TypeElement) element).getTypeParameters().isEmpty()) {
+        error(element, "@SeparatedRecord can not be used on generic records");
+      } else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        error(element, "@SeparatedRecord can not be used on private records");
+      } else {
+        generateCodec((TypeElement) element);
+      }
+    }
+    return true;
+  }
+
+  private void generateCodec(TypeElement record) {
+    final SeparatedRecord settings = record.getAnnotation(SeparatedRecord.class);
+    final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(record);
+    final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+    final String recordName = record.getQualifiedName().toString();
+    final String codecName = settings.codecName().isEmpty()
+            ? nestedName(record) + "Codec"
+            : settings.codecName();
+    final List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+    final StringBuilder parsers = new StringBuilder();
+    final StringBuilder accessors = new StringBuilder();
+    boolean hasPrimitives = false;
+    for (int i = 0; i < components.size(); i++) {
+      final RecordComponentElement component = components.get(i);
+      final boolean primitive = component.asType().getKind().isPrimitive();
+      // primitives have no null so an empty column is an error rather than a value
+      final String value = primitive
+              ? "required(values, " + i + ", " + literal(component.getSimpleName().toString()) + ")"
+              : "values.get(" + i + ")";
+      final String parser = parserFor(component.asType(), value);
+      if (parser == null) {
+        error(component, "@SeparatedRecord does not support components of type " + component.asType());
+        return;
+      }
+      if (i > 0) {
+        parsers.append(",\n            ");
+        accessors.append(", ");
+      }
+      parsers.append(parser);
+      accessors.append("value.").append(component.getSimpleName()).append("()");
+      hasPrimitives |= primitive;
+    }
+
+    final StringBuilder format = new StringBuilder("nz.co.gregs.separatedstring.Builder.forSeparator(")
+            .append(literal(settings.separator())).append(")");
+    if (!settings.wrap().isEmpty()) {
+      format.append("\n          .withThisBeforeEachTerm(").append(literal(settings.wrap())).append(")")
+              .append("\n          .withThisAfterEachTerm(").append(literal(settings.wrap())).append(")");
+    }
+    if (!settings.escape().isEmpty()) {
+      format.append("\n          .withEscapeChar(").append(literal(settings.escape())).append(")");
+    }
+    format.append("\n          .compile()");
+
+    final String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+    try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedCodecName, record).openWriter()) {
+      if (!packageName.isEmpty()) {
+        writer.write("package " + packageName + ";\n\n");
+      }
+      writer.write("/**\n"
+              + " * Encodes and decodes {@link " + recordName + "} as separated strings.\n"
+              + " */\n"
+              + "@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n"
+              + "public final class " + codecName + " {\n"
+              + "\n"
+              + "  private static final nz.co.gregs.separatedstring.SeparatedFormat FORMAT = " + format + ";\n"
+              + "\n"
+              + "  private " + codecName + "() {\n"
+              + "  }\n"
+              + "\n"
+              + "  public static nz.co.gregs.separatedstring.SeparatedFormat format() {\n"
+              + "    return FORMAT;\n"
+              + "  }\n"
+              + "\n"
+              + "  public static String encode(" + recordName + " value) {\n"
+              + "    return FORMAT.encode(" + accessors + ");\n"
+              + "  }\n"
+              + "\n"
+              + "  public static StringBuilder encodeTo(StringBuilder target, " + recordName + " value) {\n"
+              + "    return FORMAT.encodeTo(target, java.util.Arrays.asList(" + accessors + "));\n"
+              + "  }\n"
+              + "\n"
+              + "  public static " + recordName + " decode(String line) {\n"
+              + (components.size() == 1
+                      // a single empty value encodes as an empty line, which decodes to no values at all
+                      ? "    final java.util.List<String> values = line.isEmpty() ? java.util.List.of(\"\") : FORMAT.decodeToList(line);\n"
+                      : "    final java.util.List<String> values = FORMAT.decodeToList(line);\n")
+              + "    if (values.size() != " + components.size() + ") {\n"
+              + "      throw new IllegalArgumentException(\"" + record.getSimpleName() + " requires " + components.size()
+              + " values but \" + values.size() + \" were found\");\n"
+              + "    }\n"
+              + "    return new " + recordName + "(" + (components.isEmpty() ? "" : "\n            " + parsers) + ");\n"
+              + "  }\n"
+              + (hasPrimitives
+                      ? "\n"
+                      + "  private static String required(java.util.List<String> values, int index, String component) {\n"
+                      + "    final String value = values.get(index);\n"
+                      + "    if (value.isEmpty()) {\n"
+                      + "      throw new IllegalArgumentException(\"" + record.getSimpleName()
+                      + " requires a value for \" + component + \" but the value at index \" + index + \" was empty\");\n"
+                      + "    }\n"
+                      + "    return value;\n"
+                      + "  }\n"
+                      : "")
+              + "}\n");
+    } catch (IOException ex) {
+      error(record, "Unable to write " + qualifiedCodecName + ": " + ex.getMessage());
+    }
+  }
+
+  /**
+   * The name of the record including the names of any enclosing types, separated with underscores.
+   */
+  private static String nestedName(TypeElement record) {
+    String name = record.getSimpleName().toString();
+    Element enclosing = record.getEnclosingElement();
+    while (enclosing instanceof TypeElement) {
+      name = enclosing.getSimpleName() + "_" + name;
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return name;
+  }
+
+  /**
+   * Produces the expression that converts the String expression into the type.
+   *
+   * @return the expression or null if the type is not supported
+   */
+  private String parserFor(TypeMirror type, String value) {
+    switch (type.getKind()) {
+      case INT:
+        return "Integer.parseInt(" + value + ")";
+      case LONG:
+        return "Long.parseLong(" + value + ")";
+      case DOUBLE:
+        return "Double.parseDouble(" + value + ")";
+      case FLOAT:
+        return "Float.parseFloat(" + value + ")";
+      case BOOLEAN:
+        return "Boolean.parseBoolean(" + value + ")";
+      case SHORT:
+        return "Short.parseShort(" + value + ")";
+      case BYTE:
+        return "Byte.parseByte(" + value + ")";
+      case CHAR:
+        return value + ".charAt(0)";
+      case DECLARED:
+        return parserForDeclaredType((DeclaredType) type, value);
+      default:
+        return null;
+    }
+  }
+
+  private String parserForDeclaredType(DeclaredType type, String value) {
+    final TypeElement element = (TypeElement) type.asElement();
+    final String name = element.getQualifiedName().toString();
+    final String parser;
+    if (name.equals("java.lang.String")) {
+      return value;
+    } else if (WRAPPER_PARSERS.containsKey(name)) {
+      parser = String.format(WRAPPER_PARSERS.get(name), value);
+    } else if (PARSEABLE_TYPES.contains(name)) {
+      parser = name + ".parse(" + value + ")";
+    } else if (name.equals("java.util.UUID")) {
+      parser = "java.util.UUID.fromString(" + value + ")";
+    } else if (element.getKind() == ElementKind.ENUM) {
+      parser = name + ".valueOf(" + value + ")";
+    } else {
+      return null;
+    }
+    // empty values are how SeparatedString encodes nulls
+    return value + ".isEmpty() ? null : " + parser;
+  }
+
+  /**
+   * Converts the value into a Java string literal.
+   */
+  private static String literal(String value) {
+    final StringBuilder result = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"':
+          result.append("\\\"");
+          break;
+        case '\\':
+          result.append("\\\\");
+          break;
+        case '\n':
+          result.append("\\n");
+          break;
+        case '\r':
+          result.append("\\r");
+          break;
+        case '\t':
+          result.append("\\t");
+          break;
+        default:
+          if (c < ' ' || c > '~') {
+            result.append(String.format("\\u%04x", (int) c));
+          } else {
+            result.append(c);
+          }
+      }
+    }
+    return result.append('"').toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring.processor;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author gregorygraham
+ */
+public class SeparatedRecordProcessorTest {
+
+  public SeparatedRecordProcessorTest() {
+  }
+
+  @Test
+  public void testGeneratedCodecRoundTrips() throws Exception {
+    Path directory = Files.createTempDirectory("processor");
+    List<Diagnostic<? extends JavaFileObject>> errors = compile(directory,
+            "package example;\n"
+            + "import nz.co.gregs.separatedstring.processor.SeparatedRecord;\n"
+            + "@SeparatedRecord(separator = \", \", wrap = \"\\\"\", escape = \"\\\\\")\n"
+            + "public record Host(String name, int port, Integer weight, java.time.LocalDate since, java.math.BigDecimal cost) {\n"
+            + "}\n");
+    assertThat(errors, empty());
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+      Class<?> record = loader.loadClass("example.Host");
+      Class<?> codec = loader.loadClass("example.HostCodec");
+      Object host = record.getConstructors()[0].newInstance("a \"quoted\", name", 8080, null, java.time.LocalDate.of(2026, 10, 18), new java.math.BigDecimal("1.50"));
+      Method encode = codec.getMethod("encode", record);
+      Method decode = codec.getMethod("decode", String.class);
+
+      String encoded = (String) encode.invoke(null, host);
+      assertThat(encoded, is("\"a \\\"quoted\\\"\\, name\", \"8080\", \"\", \"2026-10-18\", \"1.50\""));
+      assertThat(decode.invoke(null, encoded), is(host));
+    }
+  }
+
+  @Test
+  public void testSingleEmptyComponentRoundTrips() throws Exception {
+    assertEmptyValueRoundTrips("Note", "String", "");
+    assertEmptyValueRoundTrips("Weight", "Integer", null);
+  }
+
+  private static void assertEmptyValueRoundTrips(String name, String type, Object emptyValue) throws Exception {
+    Path directory = Files.createTempDirectory("processor");
+    List<Diagnostic<? extends JavaFileObject>> errors = compile(directory,
+            "package example;\n"
+            + "@nz.co.gregs.separatedstring.processor.SeparatedRecord\n"
+            + "public record " + name + "(" + type + " value) {\n"
+            + "}\n");
+    assertThat(errors, empty());
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, SeparatedRecordProcessorTest.class.getClassLoader())) {
+      Class<?> record = loader.loadClass("example." + name);
+      Class<?> codec = loader.loadClass("example." + name + "Codec");
+      Object empty = record.getConstructors()[0].newInstance(emptyValue);
+      String encoded = (String) codec.getMethod("encode", record).invoke(null, empty);
+      assertThat(encoded, is(""));
+      assertThat(codec.getMethod("decode", String.class).invoke(null, encoded), is(empty));
+    }
+  }
+
+  @Test
+  public void testEmptyPrimitiveIsRejected() throws Exception {
+    Path directory = Files.createTempDirectory("processor");
+    List<Diagnostic<? extends JavaFileObject>> errors = compile(directory,
+            "package example;\n"
+            + "@nz.co.gregs.separatedstring.processor.SeparatedRecord\n"
+            + "public record Point(String label, int x, char code, Integer weight) {\n"
+            + "}\n");
+    assertThat(errors, empty());
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+      Class<?> record = loader.loadClass("example.Point");
+      Method decode = loader.loadClass("example.PointCodec").getMethod("decode", String.class);
+      assertThat(decode.invoke(null, "a,1,c,"), is(record.getConstructors()[0].newInstance("a", 1, 'c', null)));
+      assertThat(decode.invoke(null, ",1,c,2"), is(record.getConstructors()[0].newInstance("", 1, 'c', 2)));
+      for (String line : List.of("a,,c,2", "a,1,,2")) {
+        try {
+          decode.invoke(null, line);
+          throw new AssertionError("decoding " + line + " should have failed");
+        } catch (InvocationTargetException ex) {
+          assertThat(ex.getCause(), is(instanceOf(IllegalArgumentException.class)));
+          assertThat(ex.getCause(), is(not(instanceOf(NumberFormatException.class))));
+          assertThat(ex.getCause().getMessage(), containsString(line.startsWith("a,,") ? "Point requires a value for x" : "Point requires a value for code"));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupportedComponentIsReported() throws Exception {
+    Path directory = Files.createTempDirectory("processor");
+    List<Diagnostic<? extends JavaFileObject>> errors = compile(directory,
+            "package example;\n"
+            + "@nz.co.gregs.separatedstring.processor.SeparatedRecord\n"
+            + "public record Holder(Object value) {\n"
+            + "}\n");
+    assertThat(errors, hasSize(1));
+    assertThat(errors.get(0).getMessage(null), containsString("does not support components of type java.lang.Object"));
+  }
+
+  private static List<Diagnostic<? extends JavaFileObject>> compile(Path directory, String source) throws IOException {
+    final String name = source.replaceAll("(?s).*public record (\\w+).*", "$1");
+    Path sourceFile = directory.resolve("example").resolve(name + ".java");
+    Files.createDirectories(sourceFile.getParent());
+    Files.writeString(sourceFile, source);
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+      List<String> options = List.of(
+              "-classpath", System.getProperty("java.class.path"),
+              "-d", directory.toString(),
+              "-s", directory.toString(),
+              "-processor", SeparatedRecordProcessor.class.getName());
+      compiler.getTask(null, files, diagnostics, options, null, files.getJavaFileObjects(sourceFile.toFile())).call();
+    }
+    return diagnostics.getDiagnostics().stream()
+            .filter((diagnostic) -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .toList();
+  }
+}
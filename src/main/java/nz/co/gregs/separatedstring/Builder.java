@@ -115,6 +115,51 @@ public class Builder {
     return new Decoder(SeparatedString.copy(separatedString));
   }
 
+  /**
+   * Used to create an immutable encoder and decoder for the separated string.
+   *
+   * <p>
+   * The format has all the builder's settings fixed so it can be kept in a static field and shared between threads. Later changes to the builder do not
+   * affect the format.</p>
+   *
+   * @return a new separated format based on the builder's settings
+   */
+  public SeparatedFormat compile() {
+    return new SeparatedFormat(SeparatedString.copy(separatedString));
+  }
+
+  /**
+   * Used to create an immutable encoder and decoder for the separated string with statistics available through JMX.
+   *
+   * <p>
+   * The format is the same as that produced by {@link #compile() } but every operation is counted by the format's {@link FormatStatistics}, which is
+   * registered with the platform MBean server using the name. Compiling another format with the same name replaces the registration.</p>
+   *
+   * @param name the name to show in JMX, the name of the dialect for instance
+   * @return a new separated format based on the builder's settings
+   */
+  public SeparatedFormat compile(String name) {
+    final SeparatedString settings = SeparatedString.copy(separatedString);
+    final FormatStatistics statistics = new FormatStatistics(name, settings.getFingerprint());
+    settings.addMetrics(statistics);
+    statistics.register();
+    return new SeparatedFormat(settings, SeparatedString.copy(separatedString), statistics);
+  }
+
+  /**
+   * Used to create a compiled template for records that always have the same keys.
+   *
+   * <p>
+   * The keys are escaped once and combined with the builder's separators so each record only needs its values encoded. Use with
+   * {@link #withKeyValueSeparator(java.lang.String) } to produce key/value strings like HTML attributes.</p>
+   *
+   * @param keys the keys of the record in the order their values will be supplied
+   * @return a new record template based on the builder's settings
+   */
+  public RecordTemplate template(String... keys) {
+    return new RecordTemplate(SeparatedString.copy(separatedString), keys);
+  }
+
   /**
    * Sets the SeparatedString to trim leading and trailing blanks during processing.
    *
@@ -198,6 +243,9 @@ public class Builder {
    * <p>
    * Normally the toString() method is called on the object, when that does not produce the correct results use this method to supply a better method.</p>
    *
+   * <p>
+   * The formatter is also used for subclasses of the class, or implementations of the interface, unless a more specific formatter has been set.</p>
+   *
    * @param <T> the type of the object to be formatted
    * @param clazz the class of the object to formatted
    * @param formatter the method that takes an object of type T and produces a correctly formatted String
@@ -441,6 +489,7 @@ public class Builder {
    * and is recommended.</p>
    *
    * @return a Builder
+   * @see Dialect#CSV
    */
   public static Builder csv() {
     return forSeparator(", ")
@@ -458,6 +507,7 @@ public class Builder {
    * and is recommended.</p>
    *
    * @return a SeparatedString
+   * @see Dialect#TSV
    */
   public static Builder tsv() {
     return byTabs().withEachTermPrecededAndFollowedWith("\"").withEscapeChar("\\").withKeyValueSeparator("=");
@@ -467,6 +517,7 @@ public class Builder {
    * Creates a SeparatedString with recommended values for creating an HTML ordered list.
    *
    * @return a SeparatedString
+   * @see Dialect#HTML_ORDERED_LIST
    */
   public static Builder htmlOrderedList() {
     final Builder forSeparator = Builder.forSeparator("\n");
@@ -477,6 +528,7 @@ public class Builder {
    * Creates a SeparatedString with recommended values for creating an HTML unordered list.
    *
    * @return a SeparatedString
+   * @see Dialect#HTML_UNORDERED_LIST
    */
   public static Builder htmlUnorderedList() {
     return forSeparator("\n").withThisBeforeEachTerm("<li>").withThisAfterEachTerm("</li>").withPrefix("<ul>\n").withSuffix("\n</ul>\n");
@@ -527,6 +579,7 @@ public class Builder {
    * Creates a SeparatedString that separates the values with a single space.
    *
    * @return a SeparateString
+   * @see Dialect#SPACES
    */
   public static Builder bySpaces() {
     return forSeparator(" ");
@@ -536,6 +589,7 @@ public class Builder {
    * Creates a SeparatedString that separates the values with a single comma.
    *
    * @return a SeparateString
+   * @see Dialect#COMMAS
    */
   public static Builder byCommas() {
     return forSeparator(",");
@@ -558,6 +612,7 @@ public class Builder {
    * This is a more robust SeparateString definition than byCommas().</p>
    *
    * @return a SeparateString
+   * @see Dialect#QUOTED_WITH_BACKSLASH_ESCAPE
    */
   public static Builder byCommasWithQuotedTermsAndBackslashEscape() {
     return forSeparator(", ")
@@ -573,6 +628,7 @@ public class Builder {
    * This is a more robust SeparateString definition than byCommas().</p>
    *
    * @return a SeparateString
+   * @see Dialect#QUOTED_WITH_DOUBLE_BACKSLASH_ESCAPE
    */
   public static Builder byCommasWithQuotedTermsAndDoubleBackslashEscape() {
     return byCommas()
@@ -588,6 +644,7 @@ public class Builder {
    * You should probably use {@link #tsv() } instead as it produces more reliable encodings</p>
    *
    * @return a SeparateString
+   * @see Dialect#TABS
    */
   public static Builder byTabs() {
     return forSeparator("\t");
@@ -597,6 +654,7 @@ public class Builder {
    * Creates a SeparatedString that separates the values with a newline character.
    *
    * @return a SeparateString
+   * @see Dialect#LINES
    */
   public static Builder byLines() {
     return forSeparator("\n");
@@ -644,6 +702,106 @@ public class Builder {
     return byLines();
   }
 
+  /**
+   * Instructs the encoder to format and escape large numbers of values using several threads.
+   *
+   * <p>
+   * Values are split into chunks which are formatted on the common ForkJoinPool and then joined in order, so the result is identical to the single threaded
+   * encoding. Parallel encoding is used once there are 10,000 values to encode and is never used with {@link #withOnlyUniqueValues() }.</p>
+   *
+   * <p>
+   * Any formatters set with {@link #setFormatFor(java.lang.Class, java.util.function.Function) } must be safe to call from several threads at once.</p>
+   *
+   * @return this Builder
+   */
+  public Builder withParallelEncoding() {
+    separatedString.withParallelEncoding();
+    return this;
+  }
+
+  /**
+   * Instructs the encoder to format and escape large numbers of values using several threads.
+   *
+   * @param minimumValues the number of values to be encoded before parallel encoding is used, zero or less disables parallel encoding
+   * @return this Builder
+   */
+  public Builder withParallelEncoding(int minimumValues) {
+    separatedString.withParallelEncoding(minimumValues);
+    return this;
+  }
+
+  /**
+   * Reports each encode and decode operation to the listener.
+   *
+   * <p>
+   * The listener receives the characters processed, the values and lines found, the escapes applied, the time taken, and which implementation was used.
+   * Nothing is measured when there is no listener, which is the default.</p>
+   *
+   * @param listener receives the measurements of each operation, null removes the current listener
+   * @return this Builder
+   */
+  public Builder withMetrics(CodecMetrics listener) {
+    separatedString.withMetrics(listener);
+    return this;
+  }
+
+  /**
+   * Limits the length of each value found while decoding.
+   *
+   * <p>
+   * Decoding fails with a {@link DecodingLimitException} as soon as a value grows beyond the limit. An unterminated quote, for instance, would otherwise
+   * make the rest of the input into a single enormous value.</p>
+   *
+   * @param maximum the maximum number of characters in a value, zero or less for no limit
+   * @return this Builder
+   */
+  public Builder withMaximumFieldLength(int maximum) {
+    separatedString.withMaximumFieldLength(maximum);
+    return this;
+  }
+
+  /**
+   * Limits the number of values found on each line while decoding.
+   *
+   * <p>
+   * Decoding fails with a {@link DecodingLimitException} as soon as a line has too many values.</p>
+   *
+   * @param maximum the maximum number of values on each line, zero or less for no limit
+   * @return this Builder
+   */
+  public Builder withMaximumFieldsPerLine(int maximum) {
+    separatedString.withMaximumFieldsPerLine(maximum);
+    return this;
+  }
+
+  /**
+   * Limits the number of lines found while decoding.
+   *
+   * <p>
+   * Decoding fails with a {@link DecodingLimitException} as soon as the line ending that would start an extra line is found.</p>
+   *
+   * @param maximum the maximum number of lines, zero or less for no limit
+   * @return this Builder
+   */
+  public Builder withMaximumLines(int maximum) {
+    separatedString.withMaximumLines(maximum);
+    return this;
+  }
+
+  /**
+   * Limits the length of the input accepted for decoding.
+   *
+   * <p>
+   * Decoding fails with a {@link DecodingLimitException} before any of an over-long input is decoded.</p>
+   *
+   * @param maximum the maximum number of characters in the input, zero or less for no limit
+   * @return this Builder
+   */
+  public Builder withMaximumInputLength(int maximum) {
+    separatedString.withMaximumInputLength(maximum);
+    return this;
+  }
+
   protected SeparatedString getSeparatedString() {
     return separatedString;
   }
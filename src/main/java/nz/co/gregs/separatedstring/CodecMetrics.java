@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+/**
+ * Receives a report of each encode and decode operation.
+ *
+ * <p>
+ * Install a listener with {@link Builder#withMetrics(nz.co.gregs.separatedstring.CodecMetrics) } to feed the operations into your own monitoring. When no
+ * listener is installed nothing is measured, so the metrics cost nothing unless they are used.</p>
+ *
+ * <p>
+ * The listener is called on the thread that performed the operation, after the operation has completed, so it must be thread-safe if the encoder, decoder,
+ * or format is shared between threads and should return quickly.</p>
+ *
+ * @author gregorygraham
+ */
+public interface CodecMetrics {
+
+  /**
+   * Called after values have been encoded.
+   *
+   * @param operation the measurements of the encoding
+   */
+  default void encoded(Operation operation) {
+  }
+
+  /**
+   * Called after a String has been decoded.
+   *
+   * @param operation the measurements of the decoding
+   */
+  default void decoded(Operation operation) {
+  }
+
+  /**
+   * Called when an encode or decode throws an exception.
+   *
+   * <p>
+   * The exception is still thrown to the caller after the listener returns.</p>
+   *
+   * @param error the exception thrown by the operation
+   */
+  default void failed(Throwable error) {
+  }
+
+  /**
+   * The implementation used for an operation.
+   */
+  public enum Engine {
+    /**
+     * The general implementation that supports every setting.
+     */
+    GENERAL,
+    /**
+     * The implementation specialised for the settings, see {@link SeparatedFormat}.
+     */
+    COMPILED,
+    /**
+     * The values were encoded in parallel, see {@link Builder#withParallelEncoding() }.
+     */
+    PARALLEL,
+    /**
+     * Nothing had changed so the previous encoding was returned, the counts describe that encoding.
+     */
+    CACHED
+  }
+
+  /**
+   * The measurements of one encode or decode operation.
+   */
+  public static final class Operation {
+
+    private final String fingerprint;
+    private final long charsIn;
+    private final long charsOut;
+    private final int fields;
+    private final int lines;
+    private final int escapes;
+    private final long nanos;
+    private final Engine engine;
+
+    Operation(String fingerprint, long charsIn, long charsOut, int fields, int lines, int escapes, long nanos, Engine engine) {
+      this.fingerprint = fingerprint;
+      this.charsIn = charsIn;
+      this.charsOut = charsOut;
+      this.fields = fields;
+      this.lines = lines;
+      this.escapes = escapes;
+      this.nanos = nanos;
+      this.engine = engine;
+    }
+
+    /**
+     * Identifies the settings used for the operation.
+     *
+     * <p>
+     * Operations performed with the same settings have the same fingerprint, so the fingerprint can be used to find which formats are busiest or slowest.
+     * Formatters set with {@link Builder#setFormatFor(java.lang.Class, java.util.function.Function) } are not included.</p>
+     *
+     * @return the fingerprint of the settings as 8 hexadecimal digits
+     */
+    public String getFingerprint() {
+      return fingerprint;
+    }
+
+    /**
+     * The number of characters processed.
+     *
+     * <p>
+     * For encoding this is the length of the formatted values before escaping, for decoding it is the length of the input.</p>
+     *
+     * @return the characters read by the operation
+     */
+    public long getCharsIn() {
+      return charsIn;
+    }
+
+    /**
+     * The number of characters produced.
+     *
+     * <p>
+     * For encoding this is the length of the encoded String, for decoding it is the total length of the values found.</p>
+     *
+     * @return the characters produced by the operation
+     */
+    public long getCharsOut() {
+      return charsOut;
+    }
+
+    /**
+     * The number of values encoded or decoded.
+     *
+     * @return the number of values
+     */
+    public int getFields() {
+      return fields;
+    }
+
+    /**
+     * The number of lines encoded or decoded.
+     *
+     * <p>
+     * Values without any line endings count as one line.</p>
+     *
+     * @return the number of lines
+     */
+    public int getLines() {
+      return lines;
+    }
+
+    /**
+     * The amount of escaping required.
+     *
+     * <p>
+     * For encoding this is the number of values that were changed by escaping, for decoding it is the number of escape sequences removed.</p>
+     *
+     * @return the number of escapes
+     */
+    public int getEscapes() {
+      return escapes;
+    }
+
+    /**
+     * The time taken by the operation.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    /**
+     * The implementation used for the operation.
+     *
+     * @return the engine that performed the operation
+     */
+    public Engine getEngine() {
+      return engine;
+    }
+
+    @Override
+    public String toString() {
+      return engine + "[fingerprint=" + fingerprint + ", charsIn=" + charsIn + ", charsOut=" + charsOut + ", fields=" + fields + ", lines=" + lines
+              + ", escapes=" + escapes + ", nanos=" + nanos + "]";
+    }
+  }
+}
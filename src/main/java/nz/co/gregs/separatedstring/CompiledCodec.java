@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import nz.co.gregs.separatedstring.util.MapList;
+import nz.co.gregs.separatedstring.util.Pair;
+
+/**
+ * Escaping and parsing specialised for one configuration of a SeparatedString.
+ *
+ * <p>
+ * The tokens are copied into final fields when the codec is created so the scanning loops only compare characters, rather than fetching each setting through
+ * a getter and creating a substring for every character as the general implementation does. Configurations that rely on the more unusual behaviour of the
+ * general implementation are not specialised and the SeparatedString uses its general implementation instead.</p>
+ *
+ * @author gregorygraham
+ */
+final class CompiledCodec {
+
+  private static final String[] NO_TOKENS = new String[]{};
+
+  // escaping
+  private final boolean escapeCompiled;
+  private final String escape;
+  private final String[] escapedTokens;
+  private final String escapedFirstChars;
+
+  // parsing
+  private final boolean parseCompiled;
+  private final String separator;
+  private final char separatorFirst;
+  private final boolean hasQuoting;
+  private final String quoteStart;
+  private final char quoteStartFirst;
+  private final String quoteEnd;
+  private final char quoteEndFirst;
+  private final boolean quotesAreEqual;
+  private final boolean hasEscape;
+  private final char escapeFirst;
+  private final boolean hasLineEnd;
+  private final String lineEnd;
+  private final char lineEndFirst;
+  private final boolean uniqueValuesOnly;
+  private final int maximumFieldLength;
+  private final int maximumFieldsPerLine;
+  private final int maximumLines;
+
+  /**
+   * Creates the specialised codec for the settings.
+   *
+   * @param settings the SeparatedString to specialise
+   * @param ctrlSequences the escape sequences of the SeparatedString, in the order they are applied
+   * @param parsedValuesFormatted true if a formatter would be applied to the values found while parsing
+   */
+  CompiledCodec(SeparatedString settings, MapList<String, String> ctrlSequences, boolean parsedValuesFormatted) {
+    escape = settings.getEscapeChar();
+    final List<String> tokens = new ArrayList<>(ctrlSequences.size());
+    boolean simpleEscapes = true;
+    for (Pair<String, String> sequence : ctrlSequences) {
+      final String token = sequence.getKey();
+      if (token != null && !token.isEmpty()) {
+        final String replacement = sequence.getValue() == null ? "" : sequence.getValue();
+        simpleEscapes &= replacement.equals(escape + token);
+        tokens.add(token);
+      }
+    }
+    if (escape.isEmpty()) {
+      // every token is replaced by itself so there is nothing to do
+      tokens.clear();
+    }
+    escapeCompiled = simpleEscapes && tokensAreIndependent(tokens);
+    escapedTokens = escapeCompiled ? tokens.toArray(NO_TOKENS) : NO_TOKENS;
+    final StringBuilder firstChars = new StringBuilder();
+    for (String token : escapedTokens) {
+      firstChars.append(token.charAt(0));
+    }
+    escapedFirstChars = firstChars.toString();
+
+    separator = settings.getSeparator();
+    quoteStart = settings.getWrapBefore();
+    quoteEnd = settings.getWrapAfter();
+    hasQuoting = settings.hasWrapping();
+    quotesAreEqual = quoteStart.equals(quoteEnd);
+    hasEscape = settings.hasEscapeChar();
+    lineEnd = settings.getLineEnd();
+    hasLineEnd = !lineEnd.isEmpty();
+    uniqueValuesOnly = settings.isUniqueValuesOnly();
+    maximumFieldLength = SeparatedString.limitOrMaximum(settings.getMaximumFieldLength());
+    maximumFieldsPerLine = SeparatedString.limitOrMaximum(settings.getMaximumFieldsPerLine());
+    maximumLines = SeparatedString.limitOrMaximum(settings.getMaximumLines());
+    separatorFirst = firstChar(separator);
+    quoteStartFirst = firstChar(quoteStart);
+    quoteEndFirst = firstChar(quoteEnd);
+    escapeFirst = firstChar(escape);
+    lineEndFirst = firstChar(lineEnd);
+    parseCompiled = !parsedValuesFormatted
+            && !settings.hasPrefix()
+            && !settings.hasSuffix()
+            && settings.getLineStart().isEmpty()
+            && !separator.isEmpty()
+            && (quoteStart.isEmpty() == quoteEnd.isEmpty());
+  }
+
+  private static char firstChar(String token) {
+    return token.isEmpty() ? 0 : token.charAt(0);
+  }
+
+  /**
+   * Checks that no token contains, or partially overlaps, another token.
+   *
+   * <p>
+   * When this is true replacing each token in turn produces the same result as a single scan that escapes whichever token is found at each position.</p>
+   */
+  private static boolean tokensAreIndependent(List<String> tokens) {
+    for (int i = 0; i < tokens.size(); i++) {
+      for (int j = i + 1; j < tokens.size(); j++) {
+        if (overlaps(tokens.get(i), tokens.get(j)) || overlaps(tokens.get(j), tokens.get(i))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean overlaps(String first, String second) {
+    if (first.contains(second)) {
+      return true;
+    }
+    for (int length = 1; length < Math.min(first.length(), second.length()); length++) {
+      if (first.endsWith(second.substring(0, length))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isEscapeCompiled() {
+    return escapeCompiled;
+  }
+
+  boolean isParseCompiled() {
+    return parseCompiled;
+  }
+
+  /**
+   * Escapes all the tokens within the string in a single scan.
+   *
+   * @param string the string to escape
+   * @return the escaped string, or the original string if nothing needed escaping
+   */
+  String escape(String string) {
+    if (escapedTokens.length == 0) {
+      return string;
+    }
+    final int length = string.length();
+    StringBuilder result = null;
+    int copied = 0;
+    for (int i = 0; i < length; i++) {
+      if (escapedFirstChars.indexOf(string.charAt(i)) >= 0) {
+        for (String token : escapedTokens) {
+          if (string.startsWith(token, i)) {
+            if (result == null) {
+              result = new StringBuilder(length + 8);
+            }
+            result.append(string, copied, i).append(escape).append(token);
+            i += token.length() - 1;
+            copied = i + 1;
+            break;
+          }
+        }
+      }
+    }
+    return result == null ? string : result.append(string, copied, length).toString();
+  }
+
+  /**
+   * Parses the input with the same rules as the general SeparatedString parser.
+   *
+   * @param line the string to parse, not null or empty
+   * @param values receives all the values found
+   * @param lines receives the values found grouped into lines
+   * @return the number of escape sequences found
+   */
+  int parse(String line, List<String> values, List<List<String>> lines) {
+    final Set<String> previousElements = uniqueValuesOnly ? new HashSet<>() : null;
+    StringBuilder val = new StringBuilder();
+    List<String> currentLine = new ArrayList<>(0);
+    boolean isInValue = false;
+    boolean isInQuotes = false;
+    boolean isInEscape = false;
+    int escapes = 0;
+    final int length = line.length();
+    int i = 0;
+    while (i < length) {
+      final char chr = line.charAt(i);
+      if (isInEscape) {
+        val.append(chr);
+        isInEscape = false;
+      } else if (hasEscape && chr == escapeFirst && line.startsWith(escape, i)) {
+        isInEscape = true;
+        escapes++;
+        i = i + escape.length() - 1;
+      } else if (hasQuoting && chr == quoteStartFirst && line.startsWith(quoteStart, i)) {
+        if (quotesAreEqual) {
+          isInQuotes = !isInQuotes;
+        } else if (!isInQuotes) {
+          isInQuotes = true;
+        }
+        i = i + quoteStart.length() - 1;
+      } else if (hasQuoting && chr == quoteEndFirst && line.startsWith(quoteEnd, i)) {
+        if (quotesAreEqual) {
+          isInQuotes = !isInQuotes;
+        } else if (isInQuotes) {
+          isInQuotes = false;
+        }
+        i = i + quoteEnd.length() - 1;
+      } else if (chr == separatorFirst && line.startsWith(separator, i)) {
+        if (isInQuotes) {
+          val.append(separator);
+        } else if (isInValue) {
+          isInValue = false;
+          add(values, val.toString(), previousElements, currentLine, i);
+          val = new StringBuilder();
+        } else {
+          add(values, "", previousElements, currentLine, i);
+        }
+        i = i + separator.length() - 1;
+      } else if (hasLineEnd && chr == lineEndFirst && line.startsWith(lineEnd, i)) {
+        isInValue = false;
+        add(values, val.toString(), previousElements, currentLine, i);
+        val = new StringBuilder();
+        lines.add(currentLine);
+        if (lines.size() >= maximumLines) {
+          throw new DecodingLimitException(DecodingLimitException.LINES, maximumLines, i);
+        }
+        currentLine = new ArrayList<>(0);
+        i = i + lineEnd.length() - 1;
+      } else if (chr == ' ') {
+        if (isInValue) {
+          val.append(chr);
+        }
+      } else {
+        isInValue = true;
+        val.append(chr);
+      }
+      if (val.length() > maximumFieldLength) {
+        throw new DecodingLimitException(DecodingLimitException.FIELD_LENGTH, maximumFieldLength, i);
+      }
+      i++;
+    }
+    add(values, val.toString(), previousElements, currentLine, length);
+    lines.add(currentLine);
+    return escapes;
+  }
+
+  private void add(List<String> values, String candidate, Set<String> previousElements, List<String> currentLine, int offset) {
+    if (currentLine.size() >= maximumFieldsPerLine) {
+      throw new DecodingLimitException(DecodingLimitException.FIELDS_PER_LINE, maximumFieldsPerLine, offset);
+    }
+    if (previousElements == null || previousElements.add(candidate)) {
+      values.add(candidate);
+      currentLine.add(candidate);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+/**
+ * Thrown when decoding an input that exceeds one of the limits set on the Builder.
+ *
+ * <p>
+ * The decoder stops as soon as the limit is crossed so a pathological input, an unterminated quote for instance, can't consume unlimited time or memory.
+ * The offset identifies where in the input the limit was crossed.</p>
+ *
+ * @author gregorygraham
+ * @see Builder#withMaximumFieldLength(int)
+ * @see Builder#withMaximumFieldsPerLine(int)
+ * @see Builder#withMaximumLines(int)
+ * @see Builder#withMaximumInputLength(int)
+ */
+public class DecodingLimitException extends IllegalArgumentException {
+
+  private static final long serialVersionUID = 1L;
+
+  static final String FIELD_LENGTH = "maximum field length";
+  static final String FIELDS_PER_LINE = "maximum fields per line";
+  static final String LINES = "maximum lines";
+  static final String INPUT_LENGTH = "maximum input length";
+
+  private final String limitName;
+  private final int limit;
+  private final int offset;
+
+  DecodingLimitException(String limitName, int limit, int offset) {
+    super("Unable to decode the input: the " + limitName + " of " + limit + " was exceeded at offset " + offset);
+    this.limitName = limitName;
+    this.limit = limit;
+    this.offset = offset;
+  }
+
+  /**
+   * Describes the limit that was exceeded, "maximum field length" for instance.
+   *
+   * @return the name of the limit
+   */
+  public String getLimitName() {
+    return limitName;
+  }
+
+  /**
+   * The value of the limit that was exceeded.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * The position in the input where the limit was exceeded.
+   *
+   * <p>
+   * For the maximum input length the input is rejected before it is decoded, so the offset is the index of the first character beyond the limit, which is
+   * always the limit itself.</p>
+   *
+   * @return the index of the character being decoded when the limit was crossed
+   */
+  public int getOffset() {
+    return offset;
+  }
+}
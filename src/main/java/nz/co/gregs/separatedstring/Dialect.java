@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.function.Supplier;
+
+/**
+ * The preset separated string formats, compiled once and ready to use.
+ *
+ * <p>
+ * Each dialect holds a {@link SeparatedFormat} created from the matching Builder method. All of the formats are compiled together when the Dialect class is
+ * initialised, so using a preset on a hot path does not create or configure anything. For instance {@code Dialect.CSV.format().encode("a", "b")}.</p>
+ *
+ * <p>
+ * Use {@link #builder() } to start from a preset and customise it, this is the same as calling the matching Builder method such as
+ * {@link Builder#csv() }.</p>
+ *
+ * @author gregorygraham
+ */
+public enum Dialect {
+
+  /**
+   * The format produced by {@link Builder#csv() }.
+   */
+  CSV(Builder::csv),
+  /**
+   * The format produced by {@link Builder#tsv() }.
+   */
+  TSV(Builder::tsv),
+  /**
+   * The format produced by {@link Builder#htmlOrderedList() }.
+   */
+  HTML_ORDERED_LIST(Builder::htmlOrderedList),
+  /**
+   * The format produced by {@link Builder#htmlUnorderedList() }.
+   */
+  HTML_UNORDERED_LIST(Builder::htmlUnorderedList),
+  /**
+   * The format produced by {@link Builder#byCommasWithQuotedTermsAndBackslashEscape() }.
+   */
+  QUOTED_WITH_BACKSLASH_ESCAPE(Builder::byCommasWithQuotedTermsAndBackslashEscape),
+  /**
+   * The format produced by {@link Builder#byCommasWithQuotedTermsAndDoubleBackslashEscape() }.
+   */
+  QUOTED_WITH_DOUBLE_BACKSLASH_ESCAPE(Builder::byCommasWithQuotedTermsAndDoubleBackslashEscape),
+  /**
+   * The format produced by {@link Builder#byCommas() }.
+   */
+  COMMAS(Builder::byCommas),
+  /**
+   * The format produced by {@link Builder#bySpaces() }.
+   */
+  SPACES(Builder::bySpaces),
+  /**
+   * The format produced by {@link Builder#byTabs() }.
+   */
+  TABS(Builder::byTabs),
+  /**
+   * The format produced by {@link Builder#byLines() }.
+   */
+  LINES(Builder::byLines);
+
+  private final SeparatedFormat format;
+
+  private Dialect(Supplier<Builder> preset) {
+    this.format = preset.get().compile();
+  }
+
+  /**
+   * The compiled format for this dialect, shared by all users of the dialect.
+   *
+   * @return the immutable format of this dialect
+   */
+  public SeparatedFormat format() {
+    return format;
+  }
+
+  /**
+   * Creates a new Builder with the settings of this dialect so that a variation can be made.
+   *
+   * @return a new builder with the settings of this dialect
+   */
+  public Builder builder() {
+    return format.builder();
+  }
+
+  /**
+   * Creates a new mutable Encoder with the settings of this dialect.
+   *
+   * @return a new encoder with the settings of this dialect
+   */
+  public Encoder encoder() {
+    return format.encoder();
+  }
+
+  /**
+   * Creates a new Decoder with the settings of this dialect.
+   *
+   * @return a new decoder with the settings of this dialect
+   */
+  public Decoder decoder() {
+    return format.decoder();
+  }
+}
@@ -33,6 +33,7 @@ package nz.co.gregs.separatedstring;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -80,6 +81,14 @@ public class Encoder {
     return separatedString.encode(strs);
   }
 
+  public String[] encodeEach(Iterable<? extends Iterable<?>> rows) {
+    return separatedString.encodeEach(rows);
+  }
+
+  public void encodeEach(Iterable<? extends Iterable<?>> rows, Consumer<String> consumer) {
+    separatedString.encodeEach(rows, consumer);
+  }
+
   public Encoder addAll(int index, Collection<?> c) {
     separatedString.addAll(index, c);
     return this;
@@ -155,6 +164,51 @@ public class Encoder {
     return this;
   }
 
+  public Encoder add(int value) {
+    separatedString.add(value);
+    return this;
+  }
+
+  public Encoder add(long value) {
+    separatedString.add(value);
+    return this;
+  }
+
+  public Encoder add(double value) {
+    separatedString.add(value);
+    return this;
+  }
+
+  public Encoder add(float value) {
+    separatedString.add(value);
+    return this;
+  }
+
+  public Encoder add(boolean value) {
+    separatedString.add(value);
+    return this;
+  }
+
+  public Encoder add(char value) {
+    separatedString.add(value);
+    return this;
+  }
+
+  public Encoder addAll(int[] values) {
+    separatedString.addAll(values);
+    return this;
+  }
+
+  public Encoder addAll(long[] values) {
+    separatedString.addAll(values);
+    return this;
+  }
+
+  public Encoder addAll(double[] values) {
+    separatedString.addAll(values);
+    return this;
+  }
+
   /**
    * Inserts the specified elements into the list of known values.
    *
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * The values of a SeparatedString stored in parallel arrays.
+ *
+ * <p>
+ * Each entry is a slot in the values array and a kind in the kinds array. Keys and primitive values are stored in their own arrays which are only allocated
+ * when the first keyed or primitive entry is added, so a SeparatedString of plain values costs one reference and one byte per value.</p>
+ *
+ * <p>
+ * Copies share the arrays of the original. The original remains the owner of the arrays and can keep appending to them, as the copies never look past
+ * their own size, while a copy takes its own arrays the first time it is changed. The owner only copies the arrays when it changes existing entries while a
+ * copy is still using them. Forking a SeparatedString is therefore cheap however many values it contains.</p>
+ *
+ * <p>
+ * A store is not thread-safe and {@link #copy() } records the new copy in this store, so a store must not be copied while another thread is changing it.
+ * Once copied, the original and its copies may be used and changed on different threads: the count of copies still sharing the arrays is atomic and a copy
+ * only leaves the count after it has finished copying the arrays, so the owner never changes entries that a copy can still see.</p>
+ *
+ * @author gregorygraham
+ */
+final class EntryStore {
+
+  static final byte VALUE = 0;
+  static final byte KEYED = 1;
+  static final byte LINE_START = 2;
+  static final byte LINE_END = 3;
+  static final byte INT = 4;
+  static final byte LONG = 5;
+  static final byte DOUBLE = 6;
+  static final byte FLOAT = 7;
+  static final byte BOOLEAN = 8;
+
+  private static final int MINIMUM_CAPACITY = 10;
+  private static final Object[] NO_VALUES = new Object[]{};
+  private static final byte[] NO_KINDS = new byte[]{};
+
+  private Object[] values = NO_VALUES;
+  private byte[] kinds = NO_KINDS;
+  // only allocated once a keyed entry is added
+  private String[] keys = null;
+  // only allocated once a primitive is added, floats and doubles are stored as their raw bits
+  private long[] primitives = null;
+  private int size = 0;
+  // the owner of the arrays when they are shared with a copy, null while the arrays belong to this store alone
+  private Ownership ownership = null;
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Makes sure there is room to append the entries, called before every append.
+   *
+   * @param minimumCapacity the number of entries the store needs to be able to hold
+   */
+  void ensureCapacity(int minimumCapacity) {
+    prepareForChange(minimumCapacity, false);
+  }
+
+  /**
+   * Makes sure there is room for the entries and that this store may change its arrays, called before every change.
+   *
+   * @param minimumCapacity the number of entries the store needs to be able to hold
+   * @param changesExisting true if existing entries will be changed or moved rather than only appending new entries
+   */
+  private void prepareForChange(int minimumCapacity, boolean changesExisting) {
+    final int capacity = kinds.length;
+    if (mustCopy(changesExisting) || minimumCapacity > capacity) {
+      final int newCapacity = minimumCapacity > capacity
+              ? Math.max(minimumCapacity, Math.max(MINIMUM_CAPACITY, capacity + (capacity >> 1)))
+              : capacity;
+      values = Arrays.copyOf(values, newCapacity);
+      kinds = Arrays.copyOf(kinds, newCapacity);
+      if (keys != null) {
+        keys = Arrays.copyOf(keys, newCapacity);
+      }
+      if (primitives != null) {
+        primitives = Arrays.copyOf(primitives, newCapacity);
+      }
+      if (ownership != null && ownership.owner != this) {
+        // only leave the count once the arrays have been copied, the owner may change them in place afterwards
+        ownership.borrowers.decrementAndGet();
+      }
+      ownership = null;
+    }
+  }
+
+  private boolean mustCopy(boolean changesExisting) {
+    if (ownership == null) {
+      return false;
+    } else if (ownership.owner != this) {
+      // the arrays belong to another store
+      return true;
+    } else {
+      // appending is invisible to the copies but changing their entries is not
+      return changesExisting && ownership.borrowers.get() > 0;
+    }
+  }
+
+  void add(Object value) {
+    final int index = append(VALUE);
+    values[index] = value;
+  }
+
+  void add(String key, Object value) {
+    final int index = append(KEYED);
+    keys()[index] = key;
+    values[index] = value;
+  }
+
+  void addLineStart() {
+    append(LINE_START);
+  }
+
+  void addLineEnd() {
+    append(LINE_END);
+  }
+
+  void add(int value) {
+    final int index = append(INT);
+    primitives()[index] = value;
+  }
+
+  void add(long value) {
+    final int index = append(LONG);
+    primitives()[index] = value;
+  }
+
+  void add(double value) {
+    final int index = append(DOUBLE);
+    primitives()[index] = Double.doubleToRawLongBits(value);
+  }
+
+  void add(float value) {
+    final int index = append(FLOAT);
+    primitives()[index] = Float.floatToRawIntBits(value);
+  }
+
+  void add(boolean value) {
+    final int index = append(BOOLEAN);
+    primitives()[index] = value ? 1 : 0;
+  }
+
+  private int append(byte kind) {
+    ensureCapacity(size + 1);
+    kinds[size] = kind;
+    return size++;
+  }
+
+  private String[] keys() {
+    if (keys == null) {
+      keys = new String[kinds.length];
+    }
+    return keys;
+  }
+
+  private long[] primitives() {
+    if (primitives == null) {
+      primitives = new long[kinds.length];
+    }
+    return primitives;
+  }
+
+  /**
+   * Inserts the values as plain values starting at the index, moving the entry currently at the index and all subsequent entries to the right.
+   *
+   * @param index the position of the first new value
+   * @param newValues the values to insert
+   * @throws IndexOutOfBoundsException if the index is less than zero or greater than the size
+   */
+  void insert(int index, Collection<?> newValues) {
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    final int count = newValues.size();
+    prepareForChange(size + count, index < size);
+    final int moving = size - index;
+    System.arraycopy(values, index, values, index + count, moving);
+    System.arraycopy(kinds, index, kinds, index + count, moving);
+    if (keys != null) {
+      System.arraycopy(keys, index, keys, index + count, moving);
+    }
+    if (primitives != null) {
+      System.arraycopy(primitives, index, primitives, index + count, moving);
+    }
+    int position = index;
+    for (Object value : newValues) {
+      values[position] = value;
+      kinds[position] = VALUE;
+      if (keys != null) {
+        keys[position] = null;
+      }
+      position++;
+    }
+    size += count;
+  }
+
+  /**
+   * Removes the entry at the index, moving all subsequent entries to the left.
+   *
+   * @param index the entry to remove
+   */
+  void remove(int index) {
+    removeIf((i) -> i == index);
+  }
+
+  /**
+   * Removes every entry whose index matches the predicate in a single pass.
+   *
+   * @param remove tests the index of each entry, true if the entry should be removed
+   */
+  void removeIf(IntPredicate remove) {
+    prepareForChange(size, true);
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      if (!remove.test(i)) {
+        if (kept != i) {
+          values[kept] = values[i];
+          kinds[kept] = kinds[i];
+          if (keys != null) {
+            keys[kept] = keys[i];
+          }
+          if (primitives != null) {
+            primitives[kept] = primitives[i];
+          }
+        }
+        kept++;
+      }
+    }
+    // release the references held by the vacated slots
+    Arrays.fill(values, kept, size, null);
+    if (keys != null) {
+      Arrays.fill(keys, kept, size, null);
+    }
+    size = kept;
+  }
+
+  byte getKind(int index) {
+    return kinds[index];
+  }
+
+  String getKey(int index) {
+    return keys == null ? null : keys[index];
+  }
+
+  /**
+   * Returns the value of the entry, boxing primitives.
+   *
+   * @param index the entry
+   * @return the value of the entry or null for line markers
+   */
+  Object getValue(int index) {
+    final byte kind = kinds[index];
+    final long bits = primitives == null ? 0 : primitives[index];
+    switch (kind) {
+      case INT:
+        return (int) bits;
+      case LONG:
+        return bits;
+      case DOUBLE:
+        return Double.longBitsToDouble(bits);
+      case FLOAT:
+        return Float.intBitsToFloat((int) bits);
+      case BOOLEAN:
+        return bits != 0;
+      default:
+        return values[index];
+    }
+  }
+
+  boolean isLineMarker(int index) {
+    final byte kind = kinds[index];
+    return kind == LINE_START || kind == LINE_END;
+  }
+
+  static boolean isPrimitive(byte kind) {
+    return kind >= INT;
+  }
+
+  /**
+   * The class a primitive kind is boxed into, used to find the formatter for the primitive.
+   *
+   * @param kind a primitive kind
+   * @return the wrapper class of the primitive
+   */
+  static Class<?> getBoxedClass(byte kind) {
+    switch (kind) {
+      case INT:
+        return Integer.class;
+      case LONG:
+        return Long.class;
+      case DOUBLE:
+        return Double.class;
+      case FLOAT:
+        return Float.class;
+      default:
+        return Boolean.class;
+    }
+  }
+
+  /**
+   * Writes the primitive value into the builder without creating any intermediate objects.
+   *
+   * @param index an entry containing a primitive
+   * @param builder the builder to write the value to
+   */
+  void appendPrimitiveTo(int index, StringBuilder builder) {
+    final long bits = primitives[index];
+    switch (kinds[index]) {
+      case INT:
+        builder.append((int) bits);
+        break;
+      case LONG:
+        builder.append(bits);
+        break;
+      case DOUBLE:
+        builder.append(Double.longBitsToDouble(bits));
+        break;
+      case FLOAT:
+        builder.append(Float.intBitsToFloat((int) bits));
+        break;
+      default:
+        builder.append(bits != 0);
+    }
+  }
+
+  /**
+   * Creates a copy of this store that behaves independently of this store.
+   *
+   * <p>
+   * The arrays are shared rather than copied. The copy takes its own arrays when it is first changed, and this store only copies the arrays if it changes
+   * existing entries while a copy is still sharing them.</p>
+   *
+   * @return a new store containing the same entries
+   */
+  EntryStore copy() {
+    final EntryStore copy = new EntryStore();
+    if (size > 0) {
+      if (ownership == null) {
+        ownership = new Ownership(this);
+      }
+      ownership.borrowers.incrementAndGet();
+      copy.ownership = ownership;
+      copy.values = values;
+      copy.kinds = kinds;
+      copy.keys = keys;
+      copy.primitives = primitives;
+      copy.size = size;
+    }
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder result = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        result.append(", ");
+      }
+      switch (kinds[i]) {
+        case LINE_START:
+          result.append("<line>");
+          break;
+        case LINE_END:
+          result.append("</line>");
+          break;
+        case KEYED:
+          result.append(keys[i]).append('=').append(values[i]);
+          break;
+        default:
+          result.append(getValue(i));
+      }
+    }
+    return result.append(']').toString();
+  }
+
+  /**
+   * Records which store may change a set of shared arrays in place and how many other stores are still using them.
+   *
+   * <p>
+   * A copy that is discarded without being changed is still counted, so the owner will copy the arrays the next time it changes existing entries.</p>
+   */
+  private static final class Ownership {
+
+    private final EntryStore owner;
+    private final AtomicInteger borrowers = new AtomicInteger();
+
+    Ownership(EntryStore owner) {
+      this.owner = owner;
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Cumulative statistics for a named SeparatedFormat, available through JMX.
+ *
+ * <p>
+ * Created by {@link Builder#compile(java.lang.String) } and registered with the platform MBean server as
+ * {@code nz.co.gregs.separatedstring:type=SeparatedFormat,name="the name"} so the load on each format can be watched from jconsole or any JMX scraper.</p>
+ *
+ * <p>
+ * The counters are LongAdders so that threads sharing the format don't contend with each other while recording their operations.</p>
+ *
+ * @author gregorygraham
+ */
+public final class FormatStatistics implements FormatStatisticsMBean, CodecMetrics {
+
+  private static final long[] LATENCY_LIMITS = {10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L};
+  private static final String[] LATENCY_BUCKETS = {"<10us", "<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s"};
+
+  private final String name;
+  private final String fingerprint;
+  private final ObjectName objectName;
+
+  private final LongAdder encodings = new LongAdder();
+  private final LongAdder decodings = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder charsIn = new LongAdder();
+  private final LongAdder charsOut = new LongAdder();
+  private final LongAdder fields = new LongAdder();
+  private final LongAdder lines = new LongAdder();
+  private final LongAdder escapes = new LongAdder();
+  private final LongAdder nanos = new LongAdder();
+  private final LongAdder compiled = new LongAdder();
+  private final LongAdder[] latencies = new LongAdder[LATENCY_BUCKETS.length];
+
+  FormatStatistics(String name, String fingerprint) {
+    this.name = name;
+    this.fingerprint = fingerprint;
+    try {
+      this.objectName = new ObjectName("nz.co.gregs.separatedstring:type=SeparatedFormat,name=" + ObjectName.quote(name));
+    } catch (MalformedObjectNameException ex) {
+      throw new IllegalArgumentException("Unable to use \"" + name + "\" as the name of a SeparatedFormat", ex);
+    }
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Registers the statistics with the platform MBean server, replacing any format previously registered with the same name.
+   */
+  void register() {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+      server.registerMBean(this, objectName);
+    } catch (JMException ex) {
+      throw new IllegalStateException("Unable to register the SeparatedFormat " + name + " with JMX", ex);
+    }
+  }
+
+  /**
+   * Removes the statistics from the platform MBean server.
+   *
+   * <p>
+   * The statistics continue to be collected but are no longer visible through JMX.</p>
+   */
+  public void unregister() {
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (InstanceNotFoundException ex) {
+      // already unregistered, possibly replaced by another format with the same name
+    } catch (JMException ex) {
+      throw new IllegalStateException("Unable to unregister the SeparatedFormat " + name + " from JMX", ex);
+    }
+  }
+
+  /**
+   * The name used to register the statistics with JMX.
+   *
+   * @return the JMX name of the statistics
+   */
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+  @Override
+  public void encoded(Operation operation) {
+    encodings.increment();
+    record(operation);
+  }
+
+  @Override
+  public void decoded(Operation operation) {
+    decodings.increment();
+    record(operation);
+  }
+
+  @Override
+  public void failed(Throwable error) {
+    errors.increment();
+  }
+
+  private void record(Operation operation) {
+    charsIn.add(operation.getCharsIn());
+    charsOut.add(operation.getCharsOut());
+    fields.add(operation.getFields());
+    lines.add(operation.getLines());
+    escapes.add(operation.getEscapes());
+    nanos.add(operation.getNanos());
+    if (operation.getEngine() == Engine.COMPILED) {
+      compiled.increment();
+    }
+    int bucket = 0;
+    while (bucket < LATENCY_LIMITS.length && operation.getNanos() >= LATENCY_LIMITS[bucket]) {
+      bucket++;
+    }
+    latencies[bucket].increment();
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  @Override
+  public long getEncodings() {
+    return encodings.sum();
+  }
+
+  @Override
+  public long getDecodings() {
+    return decodings.sum();
+  }
+
+  @Override
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  @Override
+  public long getCharsIn() {
+    return charsIn.sum();
+  }
+
+  @Override
+  public long getCharsOut() {
+    return charsOut.sum();
+  }
+
+  @Override
+  public long getFields() {
+    return fields.sum();
+  }
+
+  @Override
+  public long getLines() {
+    return lines.sum();
+  }
+
+  @Override
+  public long getEscapes() {
+    return escapes.sum();
+  }
+
+  @Override
+  public long getTotalNanos() {
+    return nanos.sum();
+  }
+
+  @Override
+  public String[] getLatencyBuckets() {
+    return LATENCY_BUCKETS.clone();
+  }
+
+  @Override
+  public long[] getLatencyHistogram() {
+    final long[] histogram = new long[latencies.length];
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = latencies[i].sum();
+    }
+    return histogram;
+  }
+
+  @Override
+  public double getCompiledRate() {
+    final long operations = encodings.sum() + decodings.sum();
+    return operations == 0 ? 0 : compiled.doubleValue() / operations;
+  }
+
+  @Override
+  public void reset() {
+    encodings.reset();
+    decodings.reset();
+    errors.reset();
+    charsIn.reset();
+    charsOut.reset();
+    fields.reset();
+    lines.reset();
+    escapes.reset();
+    nanos.reset();
+    compiled.reset();
+    for (LongAdder latency : latencies) {
+      latency.reset();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+/**
+ * The JMX view of the {@link FormatStatistics} for a named SeparatedFormat.
+ *
+ * @author gregorygraham
+ */
+public interface FormatStatisticsMBean {
+
+  /**
+   * The name the format was compiled with.
+   *
+   * @return the name of the format
+   */
+  String getName();
+
+  /**
+   * Identifies the settings of the format.
+   *
+   * @return the fingerprint of the format's settings
+   */
+  String getFingerprint();
+
+  /**
+   * The number of encodings completed.
+   *
+   * @return the number of encodings
+   */
+  long getEncodings();
+
+  /**
+   * The number of decodings completed.
+   *
+   * @return the number of decodings
+   */
+  long getDecodings();
+
+  /**
+   * The number of operations that threw an exception.
+   *
+   * @return the number of failed operations
+   */
+  long getErrors();
+
+  /**
+   * The total characters read by all operations.
+   *
+   * @return the characters read
+   */
+  long getCharsIn();
+
+  /**
+   * The total characters produced by all operations.
+   *
+   * @return the characters produced
+   */
+  long getCharsOut();
+
+  /**
+   * The total values encoded and decoded.
+   *
+   * @return the number of values
+   */
+  long getFields();
+
+  /**
+   * The total lines encoded and decoded.
+   *
+   * @return the number of lines
+   */
+  long getLines();
+
+  /**
+   * The total escapes applied and removed.
+   *
+   * @return the number of escapes
+   */
+  long getEscapes();
+
+  /**
+   * The total time spent in all operations.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  long getTotalNanos();
+
+  /**
+   * The upper limits of the latency histogram buckets.
+   *
+   * @return a description of each bucket, the last bucket has no upper limit
+   */
+  String[] getLatencyBuckets();
+
+  /**
+   * The number of operations within each latency bucket.
+   *
+   * @return the count of operations for each of the {@link #getLatencyBuckets() }
+   */
+  long[] getLatencyHistogram();
+
+  /**
+   * The fraction of operations performed by the implementation specialised for the format's settings.
+   *
+   * <p>
+   * The specialised implementation is cached when the format is compiled so this is the hit rate of that cache, operations that need the general
+   * implementation are misses.</p>
+   *
+   * @return a value between 0 and 1, or 0 if there have been no operations
+   */
+  double getCompiledRate();
+
+  /**
+   * Sets all the counts back to zero.
+   */
+  void reset();
+}
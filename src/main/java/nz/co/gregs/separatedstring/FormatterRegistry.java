@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An immutable collection of formatters that finds the most specific formatter for a class.
+ *
+ * <p>
+ * A formatter set for a class is also used for its subclasses and, if the class is an interface, its implementations. The search is performed once per
+ * concrete class and the result is remembered so subsequent look ups are a single map access.</p>
+ *
+ * <p>
+ * Adding a formatter produces a new registry so a registry can be shared freely between SeparatedStrings and threads.</p>
+ *
+ * @author gregorygraham
+ */
+final class FormatterRegistry {
+
+  static final FormatterRegistry EMPTY = new FormatterRegistry(Collections.emptyMap());
+
+  // stands in for "no formatter" as ConcurrentHashMap does not allow null values
+  private static final Function<Object, String> NO_FORMATTER = (object) -> null;
+
+  private final Map<Class<?>, Function<?, String>> formatters;
+  private final ConcurrentHashMap<Class<?>, Function<?, String>> resolved = new ConcurrentHashMap<>();
+
+  private FormatterRegistry(Map<Class<?>, Function<?, String>> formatters) {
+    this.formatters = formatters;
+  }
+
+  /**
+   * Creates a new registry containing all of this registry's formatters and the new formatter.
+   *
+   * @param clazz the class the formatter applies to
+   * @param formatter the formatter
+   * @return a new registry
+   */
+  FormatterRegistry with(Class<?> clazz, Function<?, String> formatter) {
+    final HashMap<Class<?>, Function<?, String>> copy = new HashMap<>(formatters);
+    copy.put(clazz, formatter);
+    return new FormatterRegistry(Collections.unmodifiableMap(copy));
+  }
+
+  boolean isEmpty() {
+    return formatters.isEmpty();
+  }
+
+  /**
+   * Finds the formatter for the class.
+   *
+   * <p>
+   * A formatter for the class itself is preferred, followed by formatters for the superclasses (nearest first), then the interfaces (nearest first), and finally
+   * a formatter for Object.</p>
+   *
+   * @param clazz the class of the object to be formatted
+   * @return the most specific formatter or NULL if there is no applicable formatter
+   */
+  Function<?, String> resolve(Class<?> clazz) {
+    if (formatters.isEmpty()) {
+      return null;
+    }
+    Function<?, String> formatter = resolved.get(clazz);
+    if (formatter == null) {
+      formatter = search(clazz);
+      resolved.putIfAbsent(clazz, formatter == null ? NO_FORMATTER : formatter);
+    }
+    return formatter == NO_FORMATTER ? null : formatter;
+  }
+
+  /**
+   * Finds the formatter set for exactly this class, ignoring superclasses and interfaces.
+   *
+   * <p>
+   * Used for the values found while parsing, which have always been formatted only by a formatter set for their own class.</p>
+   *
+   * @param clazz the class of the object to be formatted
+   * @return the formatter set for the class or NULL if there is none
+   */
+  Function<?, String> exact(Class<?> clazz) {
+    return formatters.get(clazz);
+  }
+
+  private Function<?, String> search(Class<?> clazz) {
+    // the class and its superclasses
+    for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+      final Function<?, String> found = formatters.get(current);
+      if (found != null) {
+        return found;
+      }
+    }
+    // interfaces, breadth first so nearer interfaces are preferred
+    final Deque<Class<?>> queue = new ArrayDeque<>();
+    final Set<Class<?>> seen = new HashSet<>();
+    for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+      for (Class<?> iface : current.getInterfaces()) {
+        queue.add(iface);
+      }
+    }
+    while (!queue.isEmpty()) {
+      final Class<?> iface = queue.remove();
+      if (seen.add(iface)) {
+        final Function<?, String> found = formatters.get(iface);
+        if (found != null) {
+          return found;
+        }
+        for (Class<?> parent : iface.getInterfaces()) {
+          queue.add(parent);
+        }
+      }
+    }
+    return formatters.get(Object.class);
+  }
+
+  @Override
+  public String toString() {
+    return formatters.toString();
+  }
+}
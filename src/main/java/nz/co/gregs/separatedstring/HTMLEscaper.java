@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+/**
+ * Escapes and unescapes the HTML special characters in cell contents.
+ *
+ * <p>
+ * Both directions scan the value once. A value without anything to escape, or unescape, is returned unchanged so the common case does not allocate.</p>
+ *
+ * @author gregorygraham
+ */
+final class HTMLEscaper {
+
+  // the entity for each character that needs escaping, indexed by the character
+  private static final String[] ENTITIES = new String['>' + 1];
+
+  static {
+    ENTITIES['&'] = "&amp;";
+    ENTITIES['<'] = "&lt;";
+    ENTITIES['>'] = "&gt;";
+    ENTITIES['"'] = "&quot;";
+    ENTITIES['\''] = "&#39;";
+  }
+
+  // the longest entity name accepted between the ampersand and the semicolon, "#x10FFFF" for instance
+  private static final int MAXIMUM_ENTITY_LENGTH = 8;
+
+  private HTMLEscaper() {
+  }
+
+  /**
+   * Replaces &amp;, &lt;, &gt;, &quot; and ' with their HTML entities.
+   *
+   * @param value the cell contents
+   * @return the escaped value, or the value itself if nothing needed escaping
+   */
+  static String escape(String value) {
+    if (value == null) {
+      return null;
+    }
+    final int length = value.length();
+    int i = 0;
+    while (i < length && entityFor(value.charAt(i)) == null) {
+      i++;
+    }
+    if (i == length) {
+      return value;
+    }
+    final StringBuilder escaped = new StringBuilder(length + 16);
+    int unchanged = 0;
+    for (; i < length; i++) {
+      final String entity = entityFor(value.charAt(i));
+      if (entity != null) {
+        escaped.append(value, unchanged, i).append(entity);
+        unchanged = i + 1;
+      }
+    }
+    return escaped.append(value, unchanged, length).toString();
+  }
+
+  private static String entityFor(char c) {
+    return c < ENTITIES.length ? ENTITIES[c] : null;
+  }
+
+  /**
+   * Replaces HTML entities with the characters they represent.
+   *
+   * <p>
+   * Handles the entities produced by {@link #escape(java.lang.String) } as well as &amp;apos;, &amp;nbsp; and numeric character references. Anything
+   * else that starts with an ampersand is left as it is.</p>
+   *
+   * @param value the cell contents
+   * @return the unescaped value, or the value itself if it contained no entities
+   */
+  static String unescape(String value) {
+    if (value == null) {
+      return null;
+    }
+    int i = value.indexOf('&');
+    if (i < 0) {
+      return value;
+    }
+    final int length = value.length();
+    final StringBuilder unescaped = new StringBuilder(length);
+    int unchanged = 0;
+    while (i >= 0) {
+      final int end = endOfEntity(value, i);
+      final int codePoint = end < 0 ? -1 : codePointOf(value, i + 1, end);
+      if (codePoint >= 0) {
+        unescaped.append(value, unchanged, i).appendCodePoint(codePoint);
+        unchanged = end + 1;
+        i = value.indexOf('&', unchanged);
+      } else {
+        i = value.indexOf('&', i + 1);
+      }
+    }
+    return unescaped.append(value, unchanged, length).toString();
+  }
+
+  /**
+   * Finds the semicolon that ends the entity starting at the ampersand, only looking as far as the longest entity so that a value full of ampersands is
+   * still scanned in linear time.
+   *
+   * @return the index of the semicolon or -1 if there is none close enough to end an entity
+   */
+  private static int endOfEntity(String value, int ampersand) {
+    final int limit = Math.min(value.length(), ampersand + MAXIMUM_ENTITY_LENGTH + 2);
+    for (int i = ampersand + 1; i < limit; i++) {
+      if (value.charAt(i) == ';') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the character represented by the entity name between start and end, or -1 if it is not a recognised entity.
+   */
+  private static int codePointOf(String value, int start, int end) {
+    final int length = end - start;
+    if (length < 2 || length > MAXIMUM_ENTITY_LENGTH) {
+      return -1;
+    }
+    if (value.charAt(start) == '#') {
+      final boolean hex = value.charAt(start + 1) == 'x' || value.charAt(start + 1) == 'X';
+      final int digits = hex ? start + 2 : start + 1;
+      if (digits == end) {
+        return -1;
+      }
+      int codePoint = 0;
+      for (int i = digits; i < end; i++) {
+        final int digit = Character.digit(value.charAt(i), hex ? 16 : 10);
+        if (digit < 0) {
+          return -1;
+        }
+        codePoint = codePoint * (hex ? 16 : 10) + digit;
+      }
+      return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+    }
+    switch (value.substring(start, end)) {
+      case "amp":
+        return '&';
+      case "lt":
+        return '<';
+      case "gt":
+        return '>';
+      case "quot":
+        return '"';
+      case "apos":
+        return '\'';
+      case "nbsp":
+        return '\u00a0';
+      default:
+        return -1;
+    }
+  }
+}
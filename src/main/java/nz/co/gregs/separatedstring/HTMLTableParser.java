@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Scans the table structure of an HTML table.
+ *
+ * <p>
+ * Used by {@link HTMLTableString} instead of the generic parser. The input is scanned once, jumping from tag to tag, and each row is passed to the
+ * callback as soon as it is complete so a large table does not need to be held as a list of lines.</p>
+ *
+ * <p>
+ * The scanner only looks for the table structure: &lt;tr&gt;, &lt;td&gt; and &lt;th&gt; tags, with any attributes and in any case. Whitespace and other
+ * tags between the cells are ignored, the contents of each cell are returned exactly as they appear, or unescaped if requested, and omitted closing
+ * tags are closed by the next row, cell, section, or the end of the table. Tables nested inside a cell are part of that cell's contents. Comments are skipped.
+ * Any other use of &lt;, including unescaped text like "a&lt;b" in a cell, is treated as text.</p>
+ *
+ * @author gregorygraham
+ */
+final class HTMLTableParser {
+
+  private HTMLTableParser() {
+  }
+
+  /**
+   * Parses the HTML table into a list of rows.
+   *
+   * @param input an HTML table
+   * @param unescape true to unescape the HTML entities in the cells
+   * @return the contents of the cells of each row
+   */
+  static List<List<String>> parseToLines(CharSequence input, boolean unescape) {
+    final List<List<String>> lines = new ArrayList<>();
+    parse(input, unescape, lines::add);
+    return lines;
+  }
+
+  /**
+   * Parses the HTML table passing each row to the consumer as it is found.
+   *
+   * @param input an HTML table
+   * @param unescape true to unescape the HTML entities in the cells
+   * @param rowConsumer receives the contents of the cells of each row
+   */
+  static void parse(CharSequence input, boolean unescape, Consumer<List<String>> rowConsumer) {
+    final int length = input.length();
+    List<String> row = null;
+    int cellStart = -1;
+    int nestedTables = 0;
+    int i = 0;
+    while (i < length) {
+      final int tagStart = indexOf(input, '<', i);
+      if (tagStart < 0) {
+        break;
+      }
+      if (startsWith(input, tagStart, "<!--")) {
+        final int commentEnd = indexOf(input, "-->", tagStart + 4);
+        // an unterminated comment is text
+        i = commentEnd < 0 ? tagStart + 1 : commentEnd + 3;
+        continue;
+      }
+      int nameStart = tagStart + 1;
+      final boolean closing = nameStart < length && input.charAt(nameStart) == '/';
+      if (closing) {
+        nameStart++;
+      }
+      int nameEnd = nameStart;
+      while (nameEnd < length && isNameChar(input.charAt(nameEnd))) {
+        nameEnd++;
+      }
+      final Tag tag = Tag.of(input, nameStart, nameEnd);
+      if (tag == Tag.OTHER || !endsName(input, nameEnd)) {
+        // only the table structure is parsed, anything else, like the b in "a<b", is text
+        i = tagStart + 1;
+        continue;
+      }
+      final int tagEnd = endOfTag(input, nameEnd);
+      i = tagEnd < 0 ? length : tagEnd + 1;
+      if (tag == Tag.TABLE && cellStart >= 0) {
+        nestedTables += closing ? -1 : 1;
+        if (nestedTables < 0) {
+          // the cell was never closed and this ends the outer table
+          nestedTables = 0;
+          row = addCell(input, unescape, row, cellStart, tagStart);
+          cellStart = -1;
+          row = endRow(row, rowConsumer);
+        }
+        continue;
+      }
+      if (nestedTables > 0) {
+        continue;
+      }
+      if (cellStart >= 0) {
+        row = addCell(input, unescape, row, cellStart, tagStart);
+        cellStart = -1;
+      }
+      switch (tag) {
+        case CELL:
+          if (!closing) {
+            if (row == null) {
+              row = new ArrayList<>();
+            }
+            cellStart = i;
+          }
+          break;
+        case ROW:
+          row = endRow(row, rowConsumer);
+          if (!closing) {
+            row = new ArrayList<>();
+          }
+          break;
+        case TABLE:
+        case SECTION:
+          row = endRow(row, rowConsumer);
+          break;
+        default:
+          break;
+      }
+    }
+    if (cellStart >= 0) {
+      row = addCell(input, unescape, row, cellStart, length);
+    }
+    endRow(row, rowConsumer);
+  }
+
+  private static List<String> addCell(CharSequence input, boolean unescape, List<String> row, int start, int end) {
+    final List<String> cells = row == null ? new ArrayList<>() : row;
+    final String contents = input.subSequence(start, Math.max(start, end)).toString();
+    cells.add(unescape ? HTMLEscaper.unescape(contents) : contents);
+    return cells;
+  }
+
+  private static List<String> endRow(List<String> row, Consumer<List<String>> rowConsumer) {
+    if (row != null) {
+      rowConsumer.accept(row);
+    }
+    return null;
+  }
+
+  private static int endOfTag(CharSequence input, int from) {
+    char quote = 0;
+    for (int i = from; i < input.length(); i++) {
+      final char c = input.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+      } else if (c == '>') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns true if the tag name ends at the index, so that "&lt;td&gt;" and "&lt;td class=..." are cells but "&lt;tdx" is not.
+   */
+  private static boolean endsName(CharSequence input, int index) {
+    if (index >= input.length()) {
+      return true;
+    }
+    final char c = input.charAt(index);
+    return c == '>' || c == '/' || Character.isWhitespace(c);
+  }
+
+  private static boolean isNameChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+  }
+
+  private static int indexOf(CharSequence input, char c, int from) {
+    if (input instanceof String) {
+      return ((String) input).indexOf(c, from);
+    }
+    for (int i = from; i < input.length(); i++) {
+      if (input.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int indexOf(CharSequence input, String str, int from) {
+    for (int i = indexOf(input, str.charAt(0), from); i >= 0; i = indexOf(input, str.charAt(0), i + 1)) {
+      if (startsWith(input, i, str)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean startsWith(CharSequence input, int offset, String str) {
+    if (offset + str.length() > input.length()) {
+      return false;
+    }
+    for (int i = 0; i < str.length(); i++) {
+      if (input.charAt(offset + i) != str.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static enum Tag {
+    TABLE, SECTION, ROW, CELL, OTHER;
+
+    static Tag of(CharSequence input, int start, int end) {
+      switch (end - start) {
+        case 2:
+          final char first = Character.toLowerCase(input.charAt(start));
+          final char second = Character.toLowerCase(input.charAt(start + 1));
+          if (first == 't' && second == 'r') {
+            return ROW;
+          } else if (first == 't' && (second == 'd' || second == 'h')) {
+            return CELL;
+          }
+          return OTHER;
+        case 5:
+          final String name = input.subSequence(start, end).toString();
+          if (name.equalsIgnoreCase("table")) {
+            return TABLE;
+          } else if (name.equalsIgnoreCase("thead") || name.equalsIgnoreCase("tbody") || name.equalsIgnoreCase("tfoot")) {
+            return SECTION;
+          }
+          return OTHER;
+        default:
+          return OTHER;
+      }
+    }
+  }
+}
@@ -31,6 +31,7 @@
 package nz.co.gregs.separatedstring;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -51,6 +52,8 @@ public class HTMLTableString {
           .withPrefix("<table>\n")
           .withSuffix("</table>\n");
 
+  private boolean htmlEscaping = false;
+
   public String encode() {
     return htmlTableFormatter.encode();
   }
@@ -99,12 +102,64 @@ public class HTMLTableString {
     return htmlTableFormatter.withNullsRetained(addNullsAsNull);
   }
 
+  /**
+   * Parses an HTML table into the contents of the cells of each row.
+   *
+   * <p>
+   * Attributes on the tags, &lt;th&gt; cells, and whitespace or other tags between the cells are all tolerated. The contents of each cell are returned
+   * exactly as they appear in the HTML, unless HTML escaping is on in which case the entities in them are unescaped.</p>
+   *
+   * <p>
+   * HTML tables are parsed by a dedicated scanner rather than a Decoder, so the decoding limits and metrics listeners that can be set on a Builder do not
+   * apply to them.</p>
+   *
+   * @param input an HTML table
+   * @return the contents of the cells of each row
+   */
   public List<List<String>> parseToLines(String input) {
-    return htmlTableFormatter.parseToLines(input);
+    return HTMLTableParser.parseToLines(input, htmlEscaping);
+  }
+
+  /**
+   * Parses an HTML table passing each row to the consumer as soon as it is found.
+   *
+   * <p>
+   * Use this instead of {@link #parseToLines(java.lang.String) } to process a large table without holding all of its rows. As with parseToLines the
+   * decoding limits and metrics listeners of a Builder do not apply.</p>
+   *
+   * @param input an HTML table
+   * @param rowConsumer receives the contents of the cells of each row
+   */
+  public void parseRows(CharSequence input, Consumer<List<String>> rowConsumer) {
+    HTMLTableParser.parse(input, htmlEscaping, rowConsumer);
   }
 
   public boolean getRetainNulls() {
     return htmlTableFormatter.getRetainNulls();
   }
 
+  /**
+   * Sets whether the contents of the cells are HTML escaped.
+   *
+   * <p>
+   * When on, &amp;, &lt;, &gt;, &quot; and ' in the formatted values are replaced with their HTML entities as the table is encoded, and the entities are
+   * unescaped again when a table is parsed. Values with nothing to escape are used as they are. The null representation is not escaped so it can be
+   * markup like &amp;nbsp;.</p>
+   *
+   * <p>
+   * Off by default so existing tables are unchanged.</p>
+   *
+   * @param escapeValues true to escape the contents of the cells
+   * @return this HTMLTableString
+   */
+  public HTMLTableString withHTMLEscaping(boolean escapeValues) {
+    this.htmlEscaping = escapeValues;
+    htmlTableFormatter.withValueEscaper(escapeValues ? HTMLEscaper::escape : null);
+    return this;
+  }
+
+  public boolean getHTMLEscaping() {
+    return htmlEscaping;
+  }
+
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Writes a simple HTML table directly to a Writer as the rows are added.
+ *
+ * <p>
+ * Produces exactly the same HTML as {@link HTMLTableString} but each row is written as soon as it is added, so the memory used does not grow with the size of
+ * the table. Use it for large tables written to a servlet response or file:</p>
+ *
+ * <pre>
+ * try (HTMLTableWriter table = new HTMLTableWriter(response.getWriter())) {
+ *   for (Row row : rows) {
+ *     table.addLine(row.getName(), row.getCount());
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The table is started when the first row is added and finished when the writer is closed. As with HTMLTableString a table without any rows produces
+ * nothing at all.</p>
+ *
+ * @author gregorygraham
+ */
+public class HTMLTableWriter implements Closeable {
+
+  private static final String TABLE_START = "<table>\n";
+  private static final String TABLE_END = "</table>\n";
+  private static final String EMPTY_ROW = "<tr></tr>\n";
+
+  private final Writer out;
+  private final SeparatedString rowFormatter = new SeparatedString()
+          .separatedBy("")
+          .withThisBeforeEachTerm("<td>")
+          .withThisAfterEachTerm("</td>")
+          .withPrefix("<tr>")
+          .withSuffix("</tr>\n");
+  private boolean started = false;
+  private boolean finished = false;
+
+  /**
+   * Creates a table that will be written to the writer.
+   *
+   * @param out where the table will be written
+   */
+  public HTMLTableWriter(Writer out) {
+    this.out = out;
+  }
+
+  /**
+   * Sets the formatter to use for the objects in the table.
+   *
+   * @param <T> the type of the object to be formatted
+   * @param clazz the class of the object to formatted
+   * @param formatter the method that takes an object of type T and produces a correctly formatted String
+   * @return this HTMLTableWriter
+   * @see SeparatedString#setFormatFor(java.lang.Class, java.util.function.Function)
+   */
+  public <T> HTMLTableWriter setFormatFor(Class<T> clazz, Function<T, String> formatter) {
+    rowFormatter.setFormatFor(clazz, formatter);
+    return this;
+  }
+
+  /**
+   * Sets the table to show null values using the specified value.
+   *
+   * <p>
+   * Only rows added after this call are affected.</p>
+   *
+   * @param useInsteadOfNull the value used to indicate a null value
+   * @return this HTMLTableWriter
+   */
+  public HTMLTableWriter withNullsAs(String useInsteadOfNull) {
+    rowFormatter.withNullsAs(useInsteadOfNull);
+    return this;
+  }
+
+  /**
+   * Sets whether null values are shown using the null representation or as empty cells.
+   *
+   * <p>
+   * Only rows added after this call are affected.</p>
+   *
+   * @param addNullsAsNull true to show nulls using {@link #getNullRepresentation() }
+   * @return this HTMLTableWriter
+   */
+  public HTMLTableWriter withNullsRetained(boolean addNullsAsNull) {
+    rowFormatter.withNullsRetained(addNullsAsNull);
+    return this;
+  }
+
+  /**
+   * Sets whether the contents of the cells are HTML escaped.
+   *
+   * <p>
+   * Only rows added after this call are affected.</p>
+   *
+   * @param escapeValues true to escape the contents of the cells
+   * @return this HTMLTableWriter
+   * @see HTMLTableString#withHTMLEscaping(boolean)
+   */
+  public HTMLTableWriter withHTMLEscaping(boolean escapeValues) {
+    rowFormatter.withValueEscaper(escapeValues ? HTMLEscaper::escape : null);
+    return this;
+  }
+
+  /**
+   * Returns true if the contents of the cells are HTML escaped.
+   *
+   * @return true if HTML escaping is on
+   */
+  public boolean getHTMLEscaping() {
+    return rowFormatter.getValueEscaper() != null;
+  }
+
+  /**
+   * The value used to show nulls when nulls are retained.
+   *
+   * @return the null representation
+   */
+  public String getNullRepresentation() {
+    return rowFormatter.getNullRepresentation();
+  }
+
+  /**
+   * Returns true if nulls are shown using the null representation.
+   *
+   * @return true if nulls are retained
+   */
+  public boolean getRetainNulls() {
+    return rowFormatter.getRetainNulls();
+  }
+
+  /**
+   * Writes the values as a row of the table.
+   *
+   * @param values the values of each cell in the row
+   * @return this HTMLTableWriter
+   * @throws IOException if the writer throws an IOException
+   */
+  public HTMLTableWriter addLine(Object... values) throws IOException {
+    if (finished) {
+      throw new IllegalStateException("Unable to add a row after the table has been closed");
+    }
+    if (!started) {
+      out.write(TABLE_START);
+      started = true;
+    }
+    if (values.length == 0) {
+      out.write(EMPTY_ROW);
+    } else {
+      rowFormatter.encodeTo(out, Arrays.asList(values));
+    }
+    return this;
+  }
+
+  /**
+   * Writes an empty row.
+   *
+   * @return this HTMLTableWriter
+   * @throws IOException if the writer throws an IOException
+   */
+  public HTMLTableWriter addLine() throws IOException {
+    return addLine(new Object[]{});
+  }
+
+  /**
+   * Returns true if no rows have been written.
+   *
+   * @return true if the table is empty
+   */
+  public boolean isEmpty() {
+    return !started;
+  }
+
+  /**
+   * Finishes the table, if any rows have been written, and closes the writer.
+   *
+   * @throws IOException if the writer throws an IOException
+   */
+  @Override
+  public void close() throws IOException {
+    if (!finished) {
+      finished = true;
+      if (started) {
+        out.write(TABLE_END);
+      }
+    }
+    out.close();
+  }
+}
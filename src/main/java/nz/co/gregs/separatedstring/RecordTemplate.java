@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compiled key/value record that encodes values for a fixed set of keys.
+ *
+ * <p>
+ * The keys are escaped once when the template is created and combined with the prefix, separators, key-value separators, and wrapping into fixed fragments.
+ * Encoding a record only needs to format and escape the values, for instance
+ * {@code Builder.byCommas().withKeyValueSeparator("=").template("host", "port").encode("localhost", 8080)} will return {@code host=localhost,port=8080}.</p>
+ *
+ * <p>
+ * The template takes a copy of the builder's settings so later changes to the builder do not affect it. A template does not change after it has been
+ * created and may be shared between threads.</p>
+ *
+ * @author gregorygraham
+ */
+public final class RecordTemplate {
+
+  private final SeparatedString settings;
+  private final String[] keys;
+  // fragments[i] precedes the i-th value and the final fragment follows the last value
+  private final String[] fragments;
+  private final boolean precomputed;
+  private final int fixedLength;
+
+  RecordTemplate(SeparatedString settings, String... keys) {
+    this.settings = settings;
+    // the template is shared between threads so the lazily calculated settings are prepared now, as SeparatedFormat does
+    settings.prepareForSharing();
+    this.keys = keys.clone();
+    this.precomputed = keys.length > 0 && settings.isNotLoop() && !settings.isUniqueValuesOnly();
+    this.fragments = new String[keys.length + 1];
+    int length = 0;
+    if (precomputed) {
+      final String between = settings.getWrapAfter() + settings.getSeparator();
+      for (int i = 0; i < keys.length; i++) {
+        final String opening = i == 0 ? settings.getPrefix() : between;
+        fragments[i] = opening + settings.getWrapBefore() + settings.escapeKey(keys[i]) + settings.getKeyValueSeparator();
+        length += fragments[i].length();
+      }
+      fragments[keys.length] = settings.getWrapAfter() + settings.getSuffix();
+      length += fragments[keys.length].length();
+    }
+    this.fixedLength = length;
+  }
+
+  /**
+   * Encodes the values as the values of the template's keys.
+   *
+   * @param values one value for each key in the same order as the keys
+   * @return the record encoded as a String
+   * @throws IllegalArgumentException if the number of values does not match the number of keys
+   */
+  public String encode(Object... values) {
+    return encode(Arrays.asList(values));
+  }
+
+  /**
+   * Encodes the values as the values of the template's keys.
+   *
+   * @param values one value for each key in the same order as the keys
+   * @return the record encoded as a String
+   * @throws IllegalArgumentException if the number of values does not match the number of keys
+   */
+  public String encode(List<?> values) {
+    if (values.size() != keys.length) {
+      throw new IllegalArgumentException("Template requires " + keys.length + " values but " + values.size() + " were supplied");
+    }
+    if (!precomputed) {
+      // loops and unique values depend on the rendered values so use the general encoding
+      return settings.encodeRecord(keys, values);
+    }
+    return settings.encodeRecord(fragments, fixedLength + 16 * keys.length, keys, values);
+  }
+
+  /**
+   * The keys of this template in the order the values are expected.
+   *
+   * @return a copy of the keys
+   */
+  public String[] getKeys() {
+    return keys.clone();
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An immutable encoder and decoder compiled from a Builder.
+ *
+ * <p>
+ * All the settings, formatters, and escape sequences are fixed when the format is compiled so a single SeparatedFormat can be stored in a static field and
+ * used by any number of threads at once. Every method is stateless: values are supplied to each call rather than being added to the format.</p>
+ *
+ * <p>
+ * For instance {@code static final SeparatedFormat CSV = Builder.csv().compile();} then {@code CSV.encode("a", 1)} and {@code CSV.decode("\"a\",\"1\"")}
+ * from anywhere.</p>
+ *
+ * @author gregorygraham
+ */
+public final class SeparatedFormat {
+
+  private final SeparatedString settings;
+  // the settings without the statistics, used for builders, encoders, and decoders so they don't add to this format's statistics
+  private final SeparatedString unmeasured;
+  private final FormatStatistics statistics;
+
+  SeparatedFormat(SeparatedString settings) {
+    this(settings, settings, null);
+  }
+
+  SeparatedFormat(SeparatedString settings, SeparatedString unmeasured, FormatStatistics statistics) {
+    this.settings = settings;
+    this.unmeasured = unmeasured;
+    this.statistics = statistics;
+    settings.prepareForSharing();
+  }
+
+  /**
+   * The statistics of a format created with {@link Builder#compile(java.lang.String) }.
+   *
+   * @return the statistics registered with JMX, or null if the format was compiled without a name
+   */
+  public FormatStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Creates a new Builder with the settings of this format so that a variation can be made.
+   *
+   * @return a new builder with the same settings
+   */
+  public Builder builder() {
+    return new Builder(SeparatedString.copy(unmeasured));
+  }
+
+  /**
+   * Creates a new mutable Encoder with the settings of this format.
+   *
+   * @return a new encoder with the same settings
+   */
+  public Encoder encoder() {
+    return new Encoder(SeparatedString.copy(unmeasured));
+  }
+
+  /**
+   * Creates a new Decoder with the settings of this format.
+   *
+   * @return a new decoder with the same settings
+   */
+  public Decoder decoder() {
+    return new Decoder(SeparatedString.copy(unmeasured));
+  }
+
+  /**
+   * Encodes the values.
+   *
+   * @param values the values to encode
+   * @return the values encoded as a String
+   */
+  public String encode(Object... values) {
+    return encode(Arrays.asList(values));
+  }
+
+  /**
+   * Encodes the values.
+   *
+   * @param values the values to encode
+   * @return the values encoded as a String
+   */
+  public String encode(List<?> values) {
+    final StringBuilder result = new StringBuilder();
+    encodeTo(result, values);
+    return result.toString();
+  }
+
+  /**
+   * Encodes the values directly onto the end of the StringBuilder.
+   *
+   * @param target the builder to append the encoding to
+   * @param values the values to encode
+   * @return the target
+   */
+  public StringBuilder encodeTo(StringBuilder target, List<?> values) {
+    try {
+      settings.encodeTo(target, values);
+    } catch (IOException ex) {
+      // StringBuilder never throws an IOException
+      throw new UncheckedIOException(ex);
+    }
+    return target;
+  }
+
+  /**
+   * Encodes the values directly onto the Appendable, a Writer for instance.
+   *
+   * @param target where the encoding should be written
+   * @param values the values to encode
+   * @return the target
+   * @throws IOException if the target throws an IOException
+   */
+  public Appendable encodeTo(Appendable target, List<?> values) throws IOException {
+    settings.encodeTo(target, values);
+    return target;
+  }
+
+  /**
+   * Encodes each of the rows as a separate String.
+   *
+   * @param rows the lists of values to be encoded, each row produces one String
+   * @return the encoded rows in the same order as the rows were provided
+   * @see SeparatedString#encodeEach(java.lang.Iterable)
+   */
+  public String[] encodeEach(Iterable<? extends Iterable<?>> rows) {
+    return settings.encodeEach(rows);
+  }
+
+  /**
+   * Encodes each of the rows and supplies the results to the consumer.
+   *
+   * @param rows the lists of values to be encoded, each row produces one String
+   * @param consumer receives the encoded rows in the same order as the rows were provided
+   * @see SeparatedString#encodeEach(java.lang.Iterable, java.util.function.Consumer)
+   */
+  public void encodeEach(Iterable<? extends Iterable<?>> rows, Consumer<String> consumer) {
+    settings.encodeEach(rows, consumer);
+  }
+
+  /**
+   * Decodes the string into its values.
+   *
+   * @param input a string consisting of separated values
+   * @return a list of the values found
+   */
+  public List<String> decode(String input) {
+    return settings.parseToList(input);
+  }
+
+  /**
+   * Decodes the string into its values.
+   *
+   * @param input a string consisting of separated values
+   * @return a list of the values found
+   */
+  public List<String> decodeToList(String input) {
+    return settings.parseToList(input);
+  }
+
+  /**
+   * Decodes the string into lines of values.
+   *
+   * @param input a string consisting of lines of separated values
+   * @return a list of the lines found, each line is a list of values
+   */
+  public List<List<String>> decodeToLines(String input) {
+    return settings.parseToLines(input);
+  }
+
+  /**
+   * Decodes the string into its values.
+   *
+   * @param input a string consisting of separated values
+   * @return an array of the values found
+   */
+  public String[] decodeToArray(String input) {
+    return settings.parseToArray(input);
+  }
+
+  /**
+   * Decodes the string into keys and values using the key-value separator.
+   *
+   * @param input a string consisting of separated keys and values
+   * @return the keys and values found
+   */
+  public Map<String, String> decodeToMap(String input) {
+    return settings.parseToMap(input);
+  }
+
+}
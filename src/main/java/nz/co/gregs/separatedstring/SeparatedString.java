@@ -30,14 +30,18 @@
  */
 package nz.co.gregs.separatedstring;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 import nz.co.gregs.separatedstring.util.MapList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import nz.co.gregs.separatedstring.util.StringEntry;
+import java.util.stream.IntStream;
 
 /**
  * Simple access to creating a string of a variety of strings separated by a common character or sequence.
@@ -64,8 +68,15 @@ import nz.co.gregs.separatedstring.util.StringEntry;
  */
 public class SeparatedString {
 
-  private final ArrayList<StringEntry> strings = new ArrayList<>();
-  private final HashMap<Class<?>, Function<?, String>> formatters = new HashMap<>();
+  // the fewest values worth handing to another thread during parallel encoding
+  private static final int MINIMUM_PARALLEL_CHUNK = 1024;
+  // the number of values required before parallel encoding is used, unless specified
+  private static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+  // every character that can appear when a primitive is converted to a String
+  private static final String PRIMITIVE_CHARACTERS = "0123456789-.EInfityNaruels";
+
+  private EntryStore strings = new EntryStore();
+  private FormatterRegistry formatters = FormatterRegistry.EMPTY;
 
   private String separator = " ";
   private String prefix = "";
@@ -82,6 +93,26 @@ public class SeparatedString {
   private boolean uniqueValuesOnly = false;
   private String lineEnd = "";
   private String lineStart = "";
+  private int parallelThreshold = 0;
+  // limits for decoding, zero for no limit
+  private int maximumFieldLength = 0;
+  private int maximumFieldsPerLine = 0;
+  private int maximumLines = 0;
+  private int maximumInputLength = 0;
+  // receives a report of each operation, null when nothing is measured
+  private transient CodecMetrics metrics = null;
+  // escapes each formatted value for the output format, null when values are only escaped for the control sequences
+  private transient UnaryOperator<String> valueEscaper = null;
+
+  // the most recent encoding of this SeparatedString, null when it needs to be regenerated
+  private transient String encoding = null;
+  // the encoding in progress, null when the values need to be rendered from the beginning
+  private transient Rendering rendering = null;
+  // the escaping required by the current settings, null when it needs to be regenerated
+  private transient MapList<String, String> ctrlSequences = null;
+  private transient Boolean primitivesNeedEscaping = null;
+  private transient CompiledCodec codec = null;
+  private transient String fingerprint = null;
 
   /**
    * Start creating your SeparatedString with a Builder, then turn it into an Encoder or Decoder to process Objects and String.
@@ -103,12 +134,9 @@ public class SeparatedString {
 
   private static SeparatedString duplicateSettingsOf(SeparatedString sepString) {
     SeparatedString newVersion = new SeparatedString();
-    for (StringEntry entry : sepString.strings) {
-      newVersion.strings.add(StringEntry.of(entry));
-    }
-    for (Map.Entry<Class<?>, Function<?, String>> entry : sepString.formatters.entrySet()) {
-      newVersion.formatters.put(entry.getKey(), entry.getValue());
-    }
+    newVersion.strings = sepString.strings.copy();
+    // the registry is immutable so it can be shared
+    newVersion.formatters = sepString.formatters;
     newVersion.separator = sepString.separator;
     newVersion.prefix = sepString.prefix;
     newVersion.suffix = sepString.suffix;
@@ -124,6 +152,13 @@ public class SeparatedString {
     newVersion.uniqueValuesOnly = sepString.isUniqueValuesOnly();
     newVersion.lineEnd = sepString.lineEnd;
     newVersion.lineStart = sepString.lineStart;
+    newVersion.parallelThreshold = sepString.parallelThreshold;
+    newVersion.maximumFieldLength = sepString.maximumFieldLength;
+    newVersion.maximumFieldsPerLine = sepString.maximumFieldsPerLine;
+    newVersion.maximumLines = sepString.maximumLines;
+    newVersion.maximumInputLength = sepString.maximumInputLength;
+    newVersion.metrics = sepString.metrics;
+    newVersion.valueEscaper = sepString.valueEscaper;
     return newVersion;
   }
 
@@ -138,6 +173,11 @@ public class SeparatedString {
             .withSuffix("]")
             .encoder();
     for (Field field : fields) {
+      final int modifiers = field.getModifiers();
+      if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+        // static fields are constants and transient fields are caches and listeners rather than settings
+        continue;
+      }
       try {
         field.setAccessible(true);
         encoder.add(field.getName(), field.get(this).toString());
@@ -184,6 +224,7 @@ public class SeparatedString {
    */
   public SeparatedString trimBlanks() {
     this.trimBlanks = true;
+    changed();
     return this;
   }
 
@@ -194,6 +235,7 @@ public class SeparatedString {
    */
   public SeparatedString withOnlyUniqueValues() {
     this.uniqueValuesOnly = true;
+    changed();
     return this;
   }
 
@@ -213,6 +255,7 @@ public class SeparatedString {
     if (separator != null) {
       this.separator = separator;
     }
+    changed();
     return this;
   }
 
@@ -233,6 +276,7 @@ public class SeparatedString {
    */
   public SeparatedString withEscapeChar(String esc) {
     this.escapeChar = esc;
+    changed();
     return this;
   }
 
@@ -252,6 +296,7 @@ public class SeparatedString {
    */
   public SeparatedString withKeyValueSeparator(String probablyEquals) {
     this.keyValueSeparator = probablyEquals;
+    changed();
     return this;
   }
 
@@ -293,9 +338,7 @@ public class SeparatedString {
    * @return returns the SeparatedString's contents encoded as a String
    */
   public String encode(String... strs) {
-    SeparatedString newVersion = duplicateSettingsOf(this);
-    String encode = newVersion.addAll(strs).encode();
-    return encode;
+    return encodeValues(Arrays.asList(strs));
   }
 
   /**
@@ -311,9 +354,203 @@ public class SeparatedString {
    * @return returns the SeparatedString's contents encoded as a String
    */
   public String encode(List<Object> strs) {
-    SeparatedString newVersion = duplicateSettingsOf(this);
-    String encode = newVersion.addAll(strs).encode();
-    return encode;
+    return encodeValues(strs);
+  }
+
+  /**
+   * Encodes each of the provided rows as a separate String as per the setup of the SeparatedString.
+   *
+   * <p>
+   * for instance a {@code SeparatedString.commaSeparated().encodeEach(List.of(List.of("1",2), List.of("3")))} will return ["1,2", "3"].</p>
+   *
+   * <p>
+   * A single buffer is reused for all the rows so encoding many small rows only allocates the resulting Strings. No values are added to this SeparatedString
+   * and no values within this SeparatedString are used in the encoding.</p>
+   *
+   * @param rows the lists of values to be encoded, each row produces one String
+   * @return the encoded rows in the same order as the rows were provided
+   */
+  public String[] encodeEach(Iterable<? extends Iterable<?>> rows) {
+    final List<String> results = new ArrayList<>();
+    encodeEach(rows, results::add);
+    return results.toArray(new String[results.size()]);
+  }
+
+  /**
+   * Encodes each of the provided rows as per the setup of the SeparatedString and supplies the results to the consumer.
+   *
+   * <p>
+   * The streaming version of {@link #encodeEach(java.lang.Iterable) }: each encoded row is passed to the consumer as soon as it has been encoded so large
+   * batches do not need to be collected in memory.</p>
+   *
+   * @param rows the lists of values to be encoded, each row produces one String
+   * @param consumer receives the encoded rows in the same order as the rows were provided
+   */
+  public void encodeEach(Iterable<? extends Iterable<?>> rows, Consumer<String> consumer) {
+    final Rendering scratch = new Rendering();
+    try {
+      for (Iterable<?> row : rows) {
+        final Iterator<?> values = row == null ? Collections.emptyIterator() : row.iterator();
+        final long started = metrics == null ? 0 : System.nanoTime();
+        final String encoded;
+        if (values.hasNext()) {
+          scratch.reset();
+          while (values.hasNext()) {
+            scratch.appendValue(values.next());
+          }
+          encoded = scratch.finish();
+          reportEncoding(scratch, encoded.length(), started);
+        } else {
+          encoded = useWhenEmpty;
+          reportEncoding(null, encoded.length(), started);
+        }
+        consumer.accept(encoded);
+      }
+    } catch (RuntimeException ex) {
+      reportFailure(ex);
+      throw ex;
+    }
+  }
+
+  /**
+   * Encodes the values and appends the result to the target.
+   *
+   * <p>
+   * No values are added to this SeparatedString and no values within this SeparatedString are used in the encoding</p>
+   *
+   * @param target where the encoding should be written
+   * @param values the values to be encoded
+   * @throws IOException if the target throws an IOException
+   */
+  void encodeTo(Appendable target, List<?> values) throws IOException {
+    final long started = metrics == null ? 0 : System.nanoTime();
+    try {
+      if (values == null || values.isEmpty()) {
+        target.append(useWhenEmpty);
+        reportEncoding(null, useWhenEmpty.length(), started);
+      } else {
+        final Rendering oneShot = new Rendering();
+        for (Object value : values) {
+          oneShot.appendValue(value);
+        }
+        final int written = oneShot.finishTo(target);
+        reportEncoding(oneShot, written, started);
+      }
+    } catch (IOException | RuntimeException ex) {
+      reportFailure(ex);
+      throw ex;
+    }
+  }
+
+  /**
+   * Prepares all the lazily calculated settings so that this SeparatedString can be shared without any further changes being made to it.
+   */
+  void prepareForSharing() {
+    getCachedCtrlSequences();
+    primitivesNeedEscaping();
+    getCodec();
+    getFingerprint();
+  }
+
+  private String encodeValues(List<?> values) {
+    final long started = metrics == null ? 0 : System.nanoTime();
+    if (values == null || values.isEmpty()) {
+      reportEncoding(null, useWhenEmpty.length(), started);
+      return useWhenEmpty;
+    } else {
+      try {
+        // render directly from the values without copying this SeparatedString
+        final Rendering oneShot = new Rendering();
+        for (Object value : values) {
+          oneShot.appendValue(value);
+        }
+        final String encoded = oneShot.finish();
+        reportEncoding(oneShot, encoded.length(), started);
+        return encoded;
+      } catch (RuntimeException ex) {
+        reportFailure(ex);
+        throw ex;
+      }
+    }
+  }
+
+  /**
+   * Reports the encoding to the metrics listener, if there is one.
+   *
+   * @param rendering the rendering that produced the encoding, or null if the empty value was used
+   * @param charsOut the length of the encoding
+   * @param started the value of System.nanoTime() when the encoding started
+   */
+  private void reportEncoding(Rendering rendering, int charsOut, long started) {
+    reportEncoding(rendering, charsOut, started, null);
+  }
+
+  /**
+   * Reports the encoding to the metrics listener, if there is one.
+   *
+   * <p>
+   * The counts always cover the whole encoding, so an encoding that only rendered the values added since the previous encoding reports the same counts as
+   * rendering everything again.</p>
+   *
+   * @param rendering the rendering that produced the encoding, or null if the empty value was used
+   * @param charsOut the length of the encoding
+   * @param started the value of System.nanoTime() when the encoding started
+   * @param engine the engine to report, or null to report the engine that rendered the values
+   */
+  private void reportEncoding(Rendering rendering, int charsOut, long started, CodecMetrics.Engine engine) {
+    final CodecMetrics listener = metrics;
+    if (listener != null) {
+      final long nanos = System.nanoTime() - started;
+      if (rendering == null) {
+        listener.encoded(new CodecMetrics.Operation(getFingerprint(), 0, charsOut, 0, 0, 0, nanos, engine == null ? CodecMetrics.Engine.GENERAL : engine));
+      } else {
+        final CodecMetrics.Engine reported = engine != null
+                ? engine
+                : rendering.parallel
+                        ? CodecMetrics.Engine.PARALLEL
+                        : getCodec().isEscapeCompiled() ? CodecMetrics.Engine.COMPILED : CodecMetrics.Engine.GENERAL;
+        listener.encoded(new CodecMetrics.Operation(getFingerprint(), rendering.charsIn, charsOut, rendering.fields, rendering.getLineCount(), rendering.escapes, nanos, reported));
+      }
+    }
+  }
+
+  private void reportFailure(Throwable error) {
+    final CodecMetrics listener = metrics;
+    if (listener != null) {
+      listener.failed(error);
+    }
+  }
+
+  /**
+   * Adds the listener to the current metrics listener, if there is one, so that both receive the reports.
+   *
+   * @param listener the additional listener
+   */
+  void addMetrics(CodecMetrics listener) {
+    final CodecMetrics existing = metrics;
+    if (existing == null) {
+      metrics = listener;
+    } else {
+      metrics = new CodecMetrics() {
+        @Override
+        public void encoded(CodecMetrics.Operation operation) {
+          existing.encoded(operation);
+          listener.encoded(operation);
+        }
+
+        @Override
+        public void decoded(CodecMetrics.Operation operation) {
+          existing.decoded(operation);
+          listener.decoded(operation);
+        }
+
+        @Override
+        public void failed(Throwable error) {
+          existing.failed(error);
+          listener.failed(error);
+        }
+      };
+    }
   }
 
   /**
@@ -322,89 +559,417 @@ public class SeparatedString {
    * <p>
    * for instance a {@code SeparatedString.commaSeparated().addAll("1",2,"3").toString()} will return "1,2,3".</p>
    *
+   * <p>
+   * The encoding is retained until the SeparatedString is changed so repeatedly encoding an unchanged SeparatedString is cheap. Adding or removing values,
+   * setting a formatter, or changing any setting will cause the encoding to be regenerated. Note that changes made within the values themselves, a mutable
+   * object added with {@link #containing(java.lang.Object...) } for instance, are not detected.</p>
+   *
    * @return returns the SeparatedString's contents encoded as a String
    */
   @Override
   public synchronized String toString() {
-    final ArrayList<StringEntry> allTheEntries = strings;
-    List<String> previousElements = new ArrayList<>(0);
-    if (allTheEntries.isEmpty()) {
+    if (encoding == null) {
+      encoding = render();
+    } else if (metrics != null) {
+      reportEncoding(strings.isEmpty() ? null : rendering, encoding.length(), System.nanoTime(), CodecMetrics.Engine.CACHED);
+    }
+    return encoding;
+  }
+
+  private String render() {
+    final long started = metrics == null ? 0 : System.nanoTime();
+    if (strings.isEmpty()) {
+      reportEncoding(null, useWhenEmpty.length(), started);
       return useWhenEmpty;
     } else {
-      StringBuilder strs = new StringBuilder();
-      String sep = "";
-
-      String currentEntry = "";
-      String firstEntry = null;
-      for (StringEntry entry : allTheEntries) {
-        // Handle the 2 special cases first
-        if (StringEntry.isEndOfLineMarker(entry)) {
-          // END OF LINE
-          // Append the line ending to the ultimate result
-          strs.append(getLineEnd());
-          // blank the separator because we're starting a new line
-          sep = "";
-          // and reloop
-        } else if (StringEntry.isStartOfLineMarker(entry)) {
-          // START OF LINE
-          // Append the line starter to the ultimate result
-          strs.append(getLineStart());
-          // blank the separator because we're starting a new line
-          sep = "";
+      if (rendering == null) {
+        rendering = new Rendering();
+      }
+      try {
+        // only the values added since the last encoding need to be rendered
+        rendering.render(strings);
+        final String encoded = rendering.finish();
+        reportEncoding(rendering, encoded.length(), started);
+        return encoded;
+      } catch (RuntimeException ex) {
+        // the rendering may be incomplete so start again next time
+        rendering = null;
+        reportFailure(ex);
+        throw ex;
+      }
+    }
+  }
+
+  /**
+   * The partially completed encoding of the values.
+   *
+   * <p>
+   * Retained between encodings so that appending values only requires the new values to be rendered. Any other change to the SeparatedString discards the
+   * Rendering and the values are rendered again from the beginning.</p>
+   */
+  private class Rendering {
+
+    private final StringBuilder body = new StringBuilder();
+    private Set<String> previousElements = null;
+    private int entriesRendered = 0;
+    private String sep = "";
+    private int firstStart = -1;
+    private int firstEnd = -1;
+    private int currentStart = -1;
+    private int currentEnd = -1;
+    private boolean stopped = false;
+    // counts for the metrics listener, covering the entries rendered since the counts were last cleared
+    private int fields = 0;
+    private int lines = 0;
+    private boolean lineOpen = false;
+    private long charsIn = 0;
+    private int escapes = 0;
+    private boolean parallel = false;
+
+    Rendering() {
+      this(getPrefix());
+    }
+
+    Rendering(String opening) {
+      body.append(opening);
+    }
+
+    /**
+     * Clears the rendering so it can be used for another set of values, keeping the buffer's capacity.
+     */
+    void reset() {
+      body.setLength(0);
+      body.append(getPrefix());
+      if (previousElements != null) {
+        previousElements.clear();
+      }
+      entriesRendered = 0;
+      sep = "";
+      firstStart = -1;
+      firstEnd = -1;
+      currentStart = -1;
+      currentEnd = -1;
+      stopped = false;
+      lineOpen = false;
+      clearCounts();
+    }
+
+    void clearCounts() {
+      fields = 0;
+      lines = 0;
+      charsIn = 0;
+      escapes = 0;
+      parallel = false;
+    }
+
+    int getLineCount() {
+      return lineOpen ? lines + 1 : lines;
+    }
+
+    void render(EntryStore entries) {
+      final int size = entries.size();
+      final int remaining = size - entriesRendered;
+      // describes this render only, a small incremental render after a parallel one is sequential
+      parallel = parallelThreshold > 0 && remaining >= parallelThreshold && !isUniqueValuesOnly();
+      if (parallel) {
+        renderInParallel(entries, entriesRendered, size);
+      } else {
+        for (int i = entriesRendered; i < size && !stopped; i++) {
+          append(entries, i);
+        }
+      }
+      entriesRendered = size;
+    }
+
+    /**
+     * Renders the entries in chunks on the common ForkJoinPool and then appends the chunks in order.
+     *
+     * <p>
+     * Not used for unique values as whether a value is included depends on all the preceding values.</p>
+     */
+    private void renderInParallel(EntryStore entries, int start, int end) {
+      // prepare the shared configuration before the workers need it
+      getCachedCtrlSequences();
+      primitivesNeedEscaping();
+      final int remaining = end - start;
+      final int chunkCount = Math.max(1, Math.min(remaining / MINIMUM_PARALLEL_CHUNK, ForkJoinPool.getCommonPoolParallelism() * 4));
+      final int chunkSize = (remaining + chunkCount - 1) / chunkCount;
+      final String separatorBeforeFirstChunk = sep;
+      final Rendering[] chunks = new Rendering[chunkCount];
+      IntStream.range(0, chunkCount).parallel().forEach((chunk) -> {
+        final int from = start + chunk * chunkSize;
+        final int to = Math.min(end, from + chunkSize);
+        final Rendering rendered = new Rendering("");
+        if (from == start) {
+          rendered.sep = separatorBeforeFirstChunk;
         } else {
-          // now get the formatted value
-          String entryString = formatStringEntry(entry);
-          if (trimBlanks && entryString.isEmpty()) {
-            // if it's empty and we're trimming blanks we don't need to handle the value any further
+          // the separator is only needed if the preceding entry was a value rather than a line marker
+          rendered.sep = entries.isLineMarker(from - 1) ? "" : getSeparator();
+        }
+        for (int i = from; i < to; i++) {
+          rendered.append(entries, i);
+        }
+        chunks[chunk] = rendered;
+      });
+      for (Rendering chunk : chunks) {
+        final int offset = body.length();
+        body.append(chunk.body);
+        if (chunk.firstStart >= 0) {
+          if (firstStart < 0) {
+            firstStart = offset + chunk.firstStart;
+            firstEnd = offset + chunk.firstEnd;
           }
-          if (isUniqueValuesOnly() && previousElements.contains(entryString)) {
-            // this has already occurred so skip to the next loop
-            break;
+          currentStart = offset + chunk.currentStart;
+          currentEnd = offset + chunk.currentEnd;
+        }
+        sep = chunk.sep;
+        fields += chunk.fields;
+        lines += chunk.lines;
+        charsIn += chunk.charsIn;
+        escapes += chunk.escapes;
+        if (chunk.lines > 0 || chunk.lineOpen) {
+          lineOpen = chunk.lineOpen;
+        }
+      }
+    }
+
+    void append(EntryStore entries, int index) {
+      final byte kind = entries.getKind(index);
+      // Handle the 2 special cases first
+      if (kind == EntryStore.LINE_END) {
+        // END OF LINE
+        // Append the line ending to the ultimate result
+        body.append(getLineEnd());
+        // blank the separator because we're starting a new line
+        sep = "";
+        lines++;
+        lineOpen = false;
+        // and reloop
+      } else if (kind == EntryStore.LINE_START) {
+        // START OF LINE
+        // Append the line starter to the ultimate result
+        body.append(getLineStart());
+        // blank the separator because we're starting a new line
+        sep = "";
+      } else if (kind == EntryStore.KEYED) {
+        appendKeyed(entries.getKey(index), entries.getValue(index));
+      } else if (EntryStore.isPrimitive(kind) && canAppendDirectly(kind)) {
+        // write the digits straight into the body
+        body.append(sep);
+        currentStart = body.length();
+        body.append(getWrapBefore());
+        final int digitsStart = body.length();
+        entries.appendPrimitiveTo(index, body);
+        charsIn += body.length() - digitsStart;
+        body.append(getWrapAfter());
+        valueAppended();
+      } else {
+        // now get the formatted value
+        appendValue(entries.getValue(index));
+      }
+    }
+
+    private boolean canAppendDirectly(byte primitiveKind) {
+      return !stopped
+              && !isUniqueValuesOnly()
+              && !primitivesNeedEscaping()
+              && formatters.resolve(EntryStore.getBoxedClass(primitiveKind)) == null;
+    }
+
+    void appendKeyed(String key, Object value) {
+      if (metrics == null) {
+        appendFormatted(formatKeyedValue(key, value));
+      } else {
+        appendFormatted(measuredEscape(key) + getKeyValueSeparator() + measuredEscape(format(value)));
+      }
+    }
+
+    void appendValue(Object value) {
+      if (metrics == null) {
+        appendFormatted(formatEntryValue(value));
+      } else {
+        appendFormatted(measuredEscape(format(value)));
+      }
+    }
+
+    /**
+     * Escapes the formatted value while counting the characters and escapes for the metrics listener.
+     */
+    private String measuredEscape(String formatted) {
+      final String escaped = replaceSequencesInString(formatted, getCachedCtrlSequences());
+      if (formatted != null) {
+        charsIn += formatted.length();
+        if (!formatted.equals(escaped)) {
+          escapes++;
+        }
+      }
+      return escaped;
+    }
+
+    private void appendFormatted(String entryString) {
+      if (!stopped) {
+        if (isUniqueValuesOnly()) {
+          if (previousElements == null) {
+            previousElements = new HashSet<>();
+          }
+          if (previousElements.contains(entryString)) {
+            // this has already occurred so no further values are rendered
+            stopped = true;
+            return;
           } else {
             // in all other cases store the value for future reference
             previousElements.add(entryString);
           }
-          // Apply wrapping
-          currentEntry = getWrapBefore() + entryString + getWrapAfter();
-          // Store the first entry for use with looping
-          if (firstEntry == null) {
-            firstEntry = currentEntry;
-          }
-          // Append the separator (which may be blank) and the wrapped value to the ultimate result
-          strs.append(sep).append(currentEntry);
-          sep = this.getSeparator();
         }
+        // Append the separator (which may be blank) and the wrapped value to the ultimate result
+        body.append(sep);
+        currentStart = body.length();
+        body.append(getWrapBefore()).append(entryString).append(getWrapAfter());
+        valueAppended();
+      }
+    }
+
+    private void valueAppended() {
+      currentEnd = body.length();
+      fields++;
+      lineOpen = true;
+      // Store the first entry for use with looping
+      if (firstStart < 0) {
+        firstStart = currentStart;
+        firstEnd = currentEnd;
+      }
+      sep = getSeparator();
+    }
+
+    String finish() {
+      final boolean hasFirst = firstStart >= 0;
+      if (isOpenLoop() && hasFirst && isFirstEntryRepeated()) {
+        final String currentEntry = body.substring(currentStart, currentEnd);
+        final String infix = body.substring(getPrefix().length()).replaceAll(sep + currentEntry + "$", "");
+        return getPrefix() + infix + getSuffix();
+      } else {
+        // temporarily add the ending to the body so the result is copied only once
+        final int mark = appendEnding();
+        final String result = body.toString();
+        body.setLength(mark);
+        return result;
       }
+    }
 
-      if (ClosedLoop.isClosed(this.closedLoop) && firstEntry != null && !firstEntry.equals(currentEntry)) {
-        strs.append(sep).append(firstEntry);
+    /**
+     * Completes the encoding and appends it to the target without creating an intermediate String where possible.
+     *
+     * @param target where the encoding should be written
+     * @return the number of characters written to the target
+     * @throws IOException if the target throws an IOException
+     */
+    int finishTo(Appendable target) throws IOException {
+      if (isOpenLoop() && firstStart >= 0 && isFirstEntryRepeated()) {
+        final String finished = finish();
+        target.append(finished);
+        return finished.length();
+      } else {
+        final int mark = appendEnding();
+        final int written = body.length();
+        target.append(body);
+        body.setLength(mark);
+        return written;
       }
+    }
 
-      String infix = strs.toString();
-      if (ClosedLoop.isOpen(this.closedLoop) && firstEntry != null && firstEntry.equals(currentEntry)) {
-        infix = infix.replaceAll(sep + currentEntry + "$", "");
+    /**
+     * Adds the closed loop value, if required, and the suffix to the body.
+     *
+     * @return the length of the body before the ending was added
+     */
+    private int appendEnding() {
+      final int mark = body.length();
+      if (isClosedLoop() && firstStart >= 0 && !isFirstEntryRepeated()) {
+        body.append(sep).append(body.substring(firstStart, firstEnd));
       }
-      return getPrefix() + infix + getSuffix();
+      body.append(getSuffix());
+      return mark;
     }
+
+    private boolean isFirstEntryRepeated() {
+      final int length = firstEnd - firstStart;
+      if (length != currentEnd - currentStart) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (body.charAt(firstStart + i) != body.charAt(currentStart + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private String formatKeyedValue(String key, Object value) {
+    return escapeKey(key) + getKeyValueSeparator() + formatEntryValue(value);
   }
 
-  private String formatStringEntry(StringEntry element) {
-    StringBuilder build = new StringBuilder();
-    if (element != null) {
-      if (element.hasKey()) {
-        build.append(replaceSequencesInString(element.getKey(), getReplacementSequences()));
-        build.append(getKeyValueSeparator());
+  /**
+   * Encodes a record using the fixed fragments of a {@link RecordTemplate}, reporting it like any other encoding.
+   *
+   * @param fragments the fragments preceding each value followed by the fragment that ends the record
+   * @param capacity the expected length of the encoding
+   * @param keys the keys of the record
+   * @param values one value for each key
+   * @return the encoded record
+   */
+  String encodeRecord(String[] fragments, int capacity, String[] keys, List<?> values) {
+    final long started = metrics == null ? 0 : System.nanoTime();
+    try {
+      final StringBuilder result = new StringBuilder(capacity);
+      // only counts the values, the fragments are appended directly to the result
+      final Rendering counts = metrics == null ? null : new Rendering("");
+      for (int i = 0; i < keys.length; i++) {
+        result.append(fragments[i]);
+        if (counts == null) {
+          result.append(formatEntryValue(values.get(i)));
+        } else {
+          counts.measuredEscape(keys[i]);
+          result.append(counts.measuredEscape(format(values.get(i))));
+          counts.fields++;
+          counts.lineOpen = true;
+        }
       }
-      build.append(formatEntryValue(element.getValue()));
-    } else {
-      build.append(formatEntryValue(element));
+      final String encoded = result.append(fragments[keys.length]).toString();
+      reportEncoding(counts, encoded.length(), started);
+      return encoded;
+    } catch (RuntimeException ex) {
+      reportFailure(ex);
+      throw ex;
+    }
+  }
+
+  String escapeKey(String key) {
+    return replaceSequencesInString(key, getCachedCtrlSequences());
+  }
+
+  String encodeRecord(String[] keys, List<?> values) {
+    if (keys.length == 0) {
+      return useWhenEmpty;
+    }
+    final long started = metrics == null ? 0 : System.nanoTime();
+    try {
+      final Rendering record = new Rendering();
+      for (int i = 0; i < keys.length; i++) {
+        record.appendKeyed(keys[i], values.get(i));
+      }
+      final String encoded = record.finish();
+      reportEncoding(record, encoded.length(), started);
+      return encoded;
+    } catch (RuntimeException ex) {
+      reportFailure(ex);
+      throw ex;
     }
-    return build.toString();
   }
 
   protected <T> String formatEntryValue(T value) {
     String string = format(value);
-    return replaceSequencesInString(string, getReplacementSequences());
+    return replaceSequencesInString(string, getCachedCtrlSequences());
   }
 
   /**
@@ -413,13 +978,18 @@ public class SeparatedString {
    * <p>
    * Normally the toString() method is called on the object, when that does not produce the correct results use this method to supply a better method.</p>
    *
+   * <p>
+   * The formatter is also used for subclasses of the class, or implementations of the interface, unless a more specific formatter has been set. For
+   * instance a formatter for Number will be used for Integer, Long, and BigDecimal values.</p>
+   *
    * @param <T> the type of the object to be formatted
    * @param clazz the class of the object to formatted
    * @param formatter the method that takes an object of type T and produces a correctly formatted String
    * @return this SeparatedObjects
    */
   public <T> SeparatedString setFormatFor(Class<T> clazz, Function<T, String> formatter) {
-    this.formatters.put(clazz, formatter);
+    this.formatters = formatters.with(clazz, formatter);
+    changed();
     return this;
   }
 
@@ -444,12 +1014,47 @@ public class SeparatedString {
         // no formatter so return the default encoding
         result = object.toString();
       }
+      if (valueEscaper != null) {
+        result = valueEscaper.apply(result);
+      }
     }
     return result;
   }
 
+  /**
+   * Sets the escaping applied to each formatted value before the control sequences are escaped.
+   *
+   * <p>
+   * Used by formats like HTML whose values need escaping for the format itself. The null representation is not escaped.</p>
+   *
+   * @param escaper escapes a formatted value, or null for no escaping
+   * @return this SeparatedString
+   */
+  SeparatedString withValueEscaper(UnaryOperator<String> escaper) {
+    this.valueEscaper = escaper;
+    changed();
+    return this;
+  }
+
+  UnaryOperator<String> getValueEscaper() {
+    return valueEscaper;
+  }
+
+  /**
+   * Formats a value found while parsing.
+   *
+   * <p>
+   * Only a formatter set for StringBuilder itself is applied, formatters for its superclasses and interfaces (Object, CharSequence, Serializable, etc) are
+   * meant for the values being encoded rather than the strings being decoded.</p>
+   */
+  @SuppressWarnings("unchecked")
+  private String formatParsed(StringBuilder val) {
+    final Function<StringBuilder, String> formatter = (Function<StringBuilder, String>) formatters.exact(StringBuilder.class);
+    return formatter == null ? val.toString() : formatter.apply(val);
+  }
+
   protected <T> Function<T, String> getFormatterFor(T object) {
-    return (Function<T, String>) formatters.get(object.getClass());
+    return (Function<T, String>) formatters.resolve(object.getClass());
   }
 
   /**
@@ -464,10 +1069,11 @@ public class SeparatedString {
   public SeparatedString withNullsAs(String useInsteadOfNull) {
     retainNulls = true;
     retainNullString = useInsteadOfNull;
+    changed();
     return this;
   }
 
-  private synchronized MapList<String, String> getCtrlSequences() {
+  private MapList<String, String> getCtrlSequences() {
     // the collection we want could be 
     // a map as its a key/value relationship
     // or a set as we don't want duplicate entries
@@ -490,19 +1096,91 @@ public class SeparatedString {
     return list;
   }
 
+  private MapList<String, String> getCachedCtrlSequences() {
+    // copied to a local so that a concurrent change can't produce a null
+    MapList<String, String> sequences = ctrlSequences;
+    if (sequences == null) {
+      sequences = getCtrlSequences();
+      ctrlSequences = sequences;
+    }
+    return sequences;
+  }
+
+  /**
+   * Checks whether any control sequence could occur within the string form of a primitive.
+   *
+   * <p>
+   * Unusual, but a separator of "0" or an escape of "e" would require the primitive's digits to be escaped.</p>
+   *
+   * @return TRUE if primitives need to be escaped like other values
+   */
+  private boolean primitivesNeedEscaping() {
+    Boolean needed = primitivesNeedEscaping;
+    if (needed == null) {
+      needed = false;
+      for (var seq : getCachedCtrlSequences()) {
+        final String seqKey = seq.getKey();
+        if (seqKey != null && !seqKey.isEmpty() && seqKey.chars().allMatch(c -> PRIMITIVE_CHARACTERS.indexOf(c) >= 0)) {
+          needed = true;
+        }
+      }
+      primitivesNeedEscaping = needed;
+    }
+    return needed;
+  }
+
+  /**
+   * The escaping and parsing specialised for the current settings.
+   *
+   * @return the codec for the current settings
+   */
+  private CompiledCodec getCodec() {
+    // copied to a local so that a concurrent change can't produce a null
+    CompiledCodec compiled = codec;
+    if (compiled == null) {
+      compiled = new CompiledCodec(this, getCachedCtrlSequences(), formatters.exact(StringBuilder.class) != null);
+      codec = compiled;
+    }
+    return compiled;
+  }
+
+  /**
+   * A short identifier for the current settings, used to group the operations reported to a {@link CodecMetrics} listener.
+   *
+   * <p>
+   * SeparatedStrings with the same settings have the same fingerprint. Formatters are not included.</p>
+   *
+   * @return the fingerprint as 8 hexadecimal digits
+   */
+  String getFingerprint() {
+    String hex = fingerprint;
+    if (hex == null) {
+      final int hash = Objects.hash(separator, prefix, suffix, wrapBefore, wrapAfter, escapeChar, useWhenEmpty, keyValueSeparator,
+              closedLoop, trimBlanks, retainNulls, retainNullString, uniqueValuesOnly, lineEnd, lineStart);
+      hex = String.format("%08x", hash);
+      fingerprint = hex;
+    }
+    return hex;
+  }
+
   private String replaceSequencesInString(String s, MapList<String, String> sequences) {
     if (s == null) {
       return s;
     } else {
+      final CompiledCodec compiled = getCodec();
       String result = s;
-      for (var seq : sequences) {
-        final String seqKey = seq.getKey();
-        if (seqKey != null && !seqKey.isEmpty()) {
-          String value = seq.getValue();
-          if (value == null || value.isEmpty()) {
-            value = "";
+      if (compiled.isEscapeCompiled()) {
+        result = compiled.escape(s);
+      } else {
+        for (var seq : sequences) {
+          final String seqKey = seq.getKey();
+          if (seqKey != null && !seqKey.isEmpty()) {
+            String value = seq.getValue();
+            if (value == null || value.isEmpty()) {
+              value = "";
+            }
+            result = result.replace(seqKey, value);
           }
-          result = result.replace(seqKey, value);
         }
       }
       if (trimBlanks) {
@@ -548,22 +1226,16 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public SeparatedString removeAll(List<Object> baddies) {
-    final StringEntry[] safeArray = strings.toArray(new StringEntry[]{});
-    for (StringEntry next : safeArray) {
-      if (next.hasKey()) {
-        final String key = next.getKey();
-        if (key != null && baddies.contains(key)) {
-          strings.remove(next);
-        }
+    strings.removeIf((index) -> {
+      if (strings.getKind(index) == EntryStore.KEYED) {
+        final String key = strings.getKey(index);
+        return key != null && baddies.contains(key);
       } else {
-        final Object value = next.getValue();
-        if (value != null && baddies.contains(value)) {
-          strings.remove(next);
-        } else if (baddies.contains(formatEntryValue(value))) {
-          strings.remove(next);
-        }
+        final Object value = strings.getValue(index);
+        return (value != null && baddies.contains(value)) || baddies.contains(formatEntryValue(value));
       }
-    }
+    });
+    changed();
     return this;
   }
 
@@ -587,12 +1259,9 @@ public class SeparatedString {
    */
   public SeparatedString addAll(int index, Collection<?> c) {
     if (c != null) {
-      final List<StringEntry> entries
-              = c.stream()
-                      .map((t) -> new StringEntry(t))
-                      .collect(Collectors.toList());
-      strings.addAll(index, entries);
+      strings.insert(index, c);
     }
+    changed();
     return this;
   }
 
@@ -604,12 +1273,12 @@ public class SeparatedString {
    */
   public SeparatedString addAll(List<Object> c) {
     if (c != null && !c.isEmpty()) {
-      final List<StringEntry> entries
-              = c.stream()
-                      .map((t) -> new StringEntry(t))
-                      .collect(Collectors.toList());
-      strings.addAll(entries);
+      strings.ensureCapacity(strings.size() + c.size());
+      for (Object value : c) {
+        strings.add(value);
+      }
     }
+    appended();
     return this;
   }
 
@@ -621,7 +1290,8 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public SeparatedString add(String key, String value) {
-    strings.add(StringEntry.of(key, value));
+    strings.add(key, value);
+    appended();
     return this;
   }
 
@@ -633,7 +1303,8 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public SeparatedString add(String key, Object value) {
-    strings.add(StringEntry.of(key, value));
+    strings.add(key, value);
+    appended();
     return this;
   }
 
@@ -646,9 +1317,10 @@ public class SeparatedString {
   public SeparatedString addAllObjectMap(Map<String, Object> c) {
     if (c != null && !c.isEmpty()) {
       c.forEach((key, value) -> {
-        strings.add(StringEntry.of(key, value));
+        strings.add(key, value);
       });
     }
+    appended();
     return this;
   }
 
@@ -709,12 +1381,13 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public SeparatedString addLine(Object... strs) {
-    strings.add(StringEntry.getStartOfLineMarker());
+    strings.addLineStart();
     for (Object str : strs) {
-      strings.add(new StringEntry(str));
+      strings.add(str);
     }
-    strings.add(StringEntry.getEndOfLineMarker());
+    strings.addLineEnd();
     checkLineEndIsSet();
+    appended();
     return this;
   }
 
@@ -731,15 +1404,36 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public SeparatedString addLine() {
-    strings.add(StringEntry.getStartOfLineMarker());
-    strings.add(StringEntry.getEndOfLineMarker());
+    strings.addLineStart();
+    strings.addLineEnd();
     checkLineEndIsSet();
+    appended();
     return this;
   }
 
+  /**
+   * Discards the cached encoding, called by every method that changes the values or settings.
+   */
+  private void changed() {
+    encoding = null;
+    rendering = null;
+    ctrlSequences = null;
+    primitivesNeedEscaping = null;
+    codec = null;
+    fingerprint = null;
+  }
+
+  /**
+   * Discards the cached encoding but retains the rendered values, called by methods that only add values to the end of the list.
+   */
+  private void appended() {
+    encoding = null;
+  }
+
   private void checkLineEndIsSet() {
     if (lineEnd.isEmpty()) {
       this.lineEnd = System.lineSeparator();
+      changed();
     }
   }
 
@@ -750,9 +1444,11 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public SeparatedString addAll(String... strs) {
+    strings.ensureCapacity(strings.size() + strs.length);
     for (String str : strs) {
-      strings.add(new StringEntry(str));
+      strings.add(str);
     }
+    appended();
     return this;
   }
 
@@ -777,14 +1473,11 @@ public class SeparatedString {
    * @return this SeparatedString
    */
   public <TYPE> SeparatedString addAll(Function<TYPE, String> stringProcessor, List<TYPE> objects) {
-    final List<StringEntry> asList
-            = objects.stream()
-                    .map(stringProcessor)
-                    .map(t -> StringEntry.of(t))
-                    .collect(Collectors.toList());
-    if (asList != null) {
-      strings.addAll(asList);
+    strings.ensureCapacity(strings.size() + objects.size());
+    for (TYPE object : objects) {
+      strings.add(stringProcessor.apply(object));
     }
+    appended();
     return this;
   }
 
@@ -801,6 +1494,7 @@ public class SeparatedString {
     if (index >= 0 && index < strings.size()) {
       strings.remove(index);
     }
+    changed();
     return this;
   }
 
@@ -814,7 +1508,8 @@ public class SeparatedString {
    * @throws IndexOutOfBoundsException {@inheritDoc}
    */
   public SeparatedString add(int index, String element) {
-    strings.add(index, StringEntry.of(element));
+    strings.insert(index, Collections.singletonList(element));
+    changed();
     return this;
   }
 
@@ -828,7 +1523,8 @@ public class SeparatedString {
    * @throws IndexOutOfBoundsException {@inheritDoc}
    */
   public SeparatedString add(int index, Object element) {
-    strings.add(index, StringEntry.of(element));
+    strings.insert(index, Collections.singletonList(element));
+    changed();
     return this;
   }
 
@@ -840,11 +1536,8 @@ public class SeparatedString {
    * @throws IndexOutOfBoundsException {@inheritDoc}
    */
   public SeparatedString add(String string) {
-    if (string == null) {
-      strings.add(null);
-    } else {
-      strings.add(StringEntry.of(string));
-    }
+    strings.add(string);
+    appended();
     return this;
   }
 
@@ -856,11 +1549,138 @@ public class SeparatedString {
    * @throws IndexOutOfBoundsException {@inheritDoc}
    */
   public SeparatedString add(Object string) {
-    if (string == null) {
-      strings.add(null);
-    } else {
-      strings.add(StringEntry.of(string.toString()));
+    strings.add(string == null ? null : string.toString());
+    appended();
+    return this;
+  }
+
+  /**
+   * Inserts the specified int into the list of known values.
+   *
+   * <p>
+   * The value is stored without boxing and its digits are written directly into the encoding unless a formatter for Integer has been set.</p>
+   *
+   * @param value element to be inserted
+   * @return this
+   */
+  public SeparatedString add(int value) {
+    strings.add(value);
+    appended();
+    return this;
+  }
+
+  /**
+   * Inserts the specified long into the list of known values.
+   *
+   * <p>
+   * The value is stored without boxing and its digits are written directly into the encoding unless a formatter for Long has been set.</p>
+   *
+   * @param value element to be inserted
+   * @return this
+   */
+  public SeparatedString add(long value) {
+    strings.add(value);
+    appended();
+    return this;
+  }
+
+  /**
+   * Inserts the specified double into the list of known values.
+   *
+   * <p>
+   * The value is stored without boxing and its digits are written directly into the encoding unless a formatter for Double has been set.</p>
+   *
+   * @param value element to be inserted
+   * @return this
+   */
+  public SeparatedString add(double value) {
+    strings.add(value);
+    appended();
+    return this;
+  }
+
+  /**
+   * Inserts the specified float into the list of known values.
+   *
+   * <p>
+   * Provided so that floats are encoded as floats rather than being widened to doubles.</p>
+   *
+   * @param value element to be inserted
+   * @return this
+   */
+  public SeparatedString add(float value) {
+    strings.add(value);
+    appended();
+    return this;
+  }
+
+  /**
+   * Inserts the specified boolean into the list of known values.
+   *
+   * @param value element to be inserted
+   * @return this
+   */
+  public SeparatedString add(boolean value) {
+    strings.add(value);
+    appended();
+    return this;
+  }
+
+  /**
+   * Inserts the specified char into the list of known values.
+   *
+   * <p>
+   * Provided so that chars are encoded as characters rather than being widened to ints.</p>
+   *
+   * @param value element to be inserted
+   * @return this
+   */
+  public SeparatedString add(char value) {
+    return add(String.valueOf(value));
+  }
+
+  /**
+   * Adds all the ints to the values within this SeparatedString.
+   *
+   * @param values the values to be added
+   * @return this SeparatedString
+   */
+  public SeparatedString addAll(int[] values) {
+    strings.ensureCapacity(strings.size() + values.length);
+    for (int value : values) {
+      strings.add(value);
+    }
+    appended();
+    return this;
+  }
+
+  /**
+   * Adds all the longs to the values within this SeparatedString.
+   *
+   * @param values the values to be added
+   * @return this SeparatedString
+   */
+  public SeparatedString addAll(long[] values) {
+    strings.ensureCapacity(strings.size() + values.length);
+    for (long value : values) {
+      strings.add(value);
     }
+    appended();
+    return this;
+  }
+
+  /**
+   * Adds all the doubles to the values within this SeparatedString.
+   *
+   * @param values the values to be added
+   * @return this SeparatedString
+   */
+  public SeparatedString addAll(double[] values) {
+    strings.ensureCapacity(strings.size() + values.length);
+    for (double value : values) {
+      strings.add(value);
+    }
+    appended();
     return this;
   }
 
@@ -880,8 +1700,9 @@ public class SeparatedString {
    */
   public SeparatedString containing(Object... strings) {
     for (Object string : strings) {
-      this.strings.add(new StringEntry(string));
+      this.strings.add(string);
     }
+    appended();
     return this;
   }
 
@@ -968,6 +1789,7 @@ public class SeparatedString {
    */
   public SeparatedString withClosedLoop() {
     this.closedLoop = ClosedLoop.Closed;
+    changed();
     return this;
   }
 
@@ -984,6 +1806,7 @@ public class SeparatedString {
    */
   public SeparatedString withOpenLoop() {
     this.closedLoop = ClosedLoop.Open;
+    changed();
     return this;
   }
 
@@ -1006,6 +1829,7 @@ public class SeparatedString {
   public SeparatedString withEachTermPrecededAndFollowedWith(String wrapAroundEachTerm) {
     this.wrapBefore = wrapAroundEachTerm;
     this.wrapAfter = wrapAroundEachTerm;
+    changed();
     return this;
   }
 
@@ -1029,6 +1853,7 @@ public class SeparatedString {
   public SeparatedString withEachTermWrappedWith(String beforeEachTerm, String afterEachTerm) {
     this.wrapBefore = beforeEachTerm;
     this.wrapAfter = afterEachTerm;
+    changed();
     return this;
   }
 
@@ -1054,6 +1879,7 @@ public class SeparatedString {
    */
   public SeparatedString withThisBeforeEachTerm(String placeAtTheBeginningOfEachTerm) {
     this.wrapBefore = placeAtTheBeginningOfEachTerm;
+    changed();
     return this;
   }
 
@@ -1079,6 +1905,7 @@ public class SeparatedString {
    */
   public SeparatedString withThisAfterEachTerm(String placeAtTheEndOfEachTerm) {
     this.wrapAfter = placeAtTheEndOfEachTerm;
+    changed();
     return this;
   }
 
@@ -1093,6 +1920,7 @@ public class SeparatedString {
    */
   public SeparatedString withPrefix(String placeAtTheBeginningOfTheString) {
     this.prefix = placeAtTheBeginningOfTheString;
+    changed();
     return this;
   }
 
@@ -1107,6 +1935,7 @@ public class SeparatedString {
    */
   public SeparatedString withSuffix(String placeAtTheEndOfTheString) {
     this.suffix = placeAtTheEndOfTheString;
+    changed();
     return this;
   }
 
@@ -1121,6 +1950,7 @@ public class SeparatedString {
    */
   public SeparatedString withNullsRetained(boolean addNullsAsNull) {
     this.retainNulls = addNullsAsNull;
+    changed();
     return this;
   }
 
@@ -1142,6 +1972,7 @@ public class SeparatedString {
    */
   public final SeparatedString useWhenEmpty(String string) {
     this.useWhenEmpty = string;
+    changed();
     return this;
   }
 
@@ -1167,19 +1998,64 @@ public class SeparatedString {
     return parse(input).getLines();
   }
 
-  private synchronized ParseResults parse(String input) {
+  private ParseResults parse(String input) {
+    final CodecMetrics listener = metrics;
+    if (listener == null) {
+      return parseInput(input);
+    } else {
+      final long started = System.nanoTime();
+      final ParseResults results;
+      try {
+        results = parseInput(input);
+      } catch (RuntimeException ex) {
+        listener.failed(ex);
+        throw ex;
+      }
+      final long nanos = System.nanoTime() - started;
+      long charsOut = 0;
+      for (String value : results.getValues()) {
+        charsOut += value.length();
+      }
+      listener.decoded(new CodecMetrics.Operation(
+              getFingerprint(),
+              input == null ? 0 : input.length(),
+              charsOut,
+              results.getValues().size(),
+              results.getLines().size(),
+              results.escapes,
+              nanos,
+              results.compiled ? CodecMetrics.Engine.COMPILED : CodecMetrics.Engine.GENERAL));
+      return results;
+    }
+  }
+
+  private ParseResults parseInput(String input) {
     ParseResults results = new ParseResults();
     Set<String> previousElements = new HashSet<>(0);
     if (input == null || input.isEmpty()) {
       return results;
     }
+    if (maximumInputLength > 0 && input.length() > maximumInputLength) {
+      // the first character beyond the limit is where the limit was crossed
+      throw new DecodingLimitException(DecodingLimitException.INPUT_LENGTH, maximumInputLength, maximumInputLength);
+    }
+    final CompiledCodec compiled = getCodec();
+    if (compiled.isParseCompiled()) {
+      results.escapes = compiled.parse(input, results.getValues(), results.getLines());
+      results.compiled = true;
+      return results;
+    }
     String line = input;
     if (hasPrefix()) {
       line = line.replaceAll("^" + getPrefix(), "");
     }
+    // offsets within the line need to be adjusted for the prefix to report their position in the input
+    final int prefixLength = input.length() - line.length();
     if (hasSuffix()) {
       line = line.replaceAll(getSuffix() + "$", "");
     }
+    final int maxFieldLength = limitOrMaximum(maximumFieldLength);
+    final int maxLines = limitOrMaximum(maximumLines);
     // we'll be scanning through the line so we need to collect the characters as we go
     StringBuilder val = new StringBuilder();
     List<String> currentLine = new ArrayList<>(0);
@@ -1204,23 +2080,23 @@ public class SeparatedString {
     while (i < line.length()) {
       // get the current character
       char chr = line.charAt(i);
-      String str = line.substring(i);
       // the escaped character is highest priority
       if (isInEscape) {
         // there is an escape in play so just add the character whatever it is
         val.append(chr);
         // only one character can be escaped so end the escape
         isInEscape = false;
-      } else if (hasEscapeChar && str.startsWith(escapeSeq)) {
+      } else if (hasEscapeChar && line.startsWith(escapeSeq, i)) {
         // having handled escaped chars, a backslash must be the start of an escape sequence
         isInEscape = true;
+        results.escapes++;
         // move past the escape sequence but remember we'll increment at the end of the loop
         i = i + escapeSeq.length() - 1;
-      } else if (!isInEscape && !isInQuotes && !isInValue && getLineStart().length() > 0 && str.startsWith(getLineStart())) {
+      } else if (!isInEscape && !isInQuotes && !isInValue && getLineStart().length() > 0 && line.startsWith(getLineStart(), i)) {
         // OK, we checked everything and it still looks like the beginning of a line so jump forward
         // move past the LineStart sequence but remember we'll increment at the end of the loop
         i = i + getLineStart().length() - 1;
-      } else if (hasQuoting && str.startsWith(quoteStart)) {
+      } else if (hasQuoting && line.startsWith(quoteStart, i)) {
         if (quotesAreEqual) {
           // turn the quotes on and off as required
           isInQuotes = !isInQuotes;
@@ -1229,7 +2105,7 @@ public class SeparatedString {
         }
         // move past the escape sequence but remember we'll increment at the end of the loop
         i = i + quoteStart.length() - 1;
-      } else if (hasQuoting && str.startsWith(quoteEnd)) {
+      } else if (hasQuoting && line.startsWith(quoteEnd, i)) {
         if (quotesAreEqual) {
           // turn the quotes on and off as required
           isInQuotes = !isInQuotes;
@@ -1238,13 +2114,13 @@ public class SeparatedString {
         }
         if (separatorString.length() == 0) {
           // When there is no separator we need to add the value to the list
-          checkUniquenessRequirementsAndAdd(results.getValues(), format(val), previousElements, currentLine);
+          checkUniquenessRequirementsAndAdd(results.getValues(), formatParsed(val), previousElements, currentLine, prefixLength + i);
           // and clear the val
           val = new StringBuilder();
         }
         // move past the escape sequence but remember we'll increment at the end of the loop
         i = i + quoteEnd.length() - 1;
-      } else if (separatorString.length() > 0 && str.startsWith(separatorString)) {
+      } else if (separatorString.length() > 0 && line.startsWith(separatorString, i)) {
         // Comma MIGHT be the end of a value but we need to check first
         if (isInQuotes) {
           // Inside a quoted string, a comma is just another char
@@ -1253,24 +2129,28 @@ public class SeparatedString {
           // but in an unquoted value it is the end of the value
           isInValue = false;
           // and we need to add the value to the list
-          checkUniquenessRequirementsAndAdd(results.getValues(), format(val), previousElements, currentLine);
+          checkUniquenessRequirementsAndAdd(results.getValues(), formatParsed(val), previousElements, currentLine, prefixLength + i);
           // and clear the val
           val = new StringBuilder();
         } else {
           // edge case: we're not in a value but we found a comma so its an empty value
-          checkUniquenessRequirementsAndAdd(results.getValues(), "", previousElements, currentLine);
+          checkUniquenessRequirementsAndAdd(results.getValues(), "", previousElements, currentLine, prefixLength + i);
         }
         // Move past the separator but remember we'll increment at the end of the loop
         i = i + separatorString.length() - 1;
-      } else if (!lineEndString.isEmpty() && str.startsWith(lineEndString)) {
+      } else if (!lineEndString.isEmpty() && line.startsWith(lineEndString, i)) {
         // we have found a new line
         isInValue = false;
         // and we need to add the value to the list
-        checkUniquenessRequirementsAndAdd(results.getValues(), format(val), previousElements, currentLine);
+        checkUniquenessRequirementsAndAdd(results.getValues(), formatParsed(val), previousElements, currentLine, prefixLength + i);
         // and clear the val
         val = new StringBuilder();
         // add the completed line
         results.getLines().add(currentLine);
+        if (results.getLines().size() >= maxLines) {
+          // there is always another line after a line end so the limit has been exceeded
+          throw new DecodingLimitException(DecodingLimitException.LINES, maximumLines, prefixLength + i);
+        }
         // and make a new blank currentLine
         currentLine = new ArrayList<>(0);
         // Move past the newline but remember we'll increment at the end of the loop
@@ -1287,11 +2167,15 @@ public class SeparatedString {
         // so we need to append it to the value
         val.append(chr);
       }
+      if (val.length() > maxFieldLength) {
+        // an unterminated quote, for instance, will produce an enormous value so stop as soon as possible
+        throw new DecodingLimitException(DecodingLimitException.FIELD_LENGTH, maximumFieldLength, prefixLength + i);
+      }
       i++;
     }
     // The last value doesn't have a terminator so we'll need to add it as well
     // Note that this means all lines have at least one value even when they're empty
-    checkUniquenessRequirementsAndAdd(results.getValues(), format(val), previousElements, currentLine);
+    checkUniquenessRequirementsAndAdd(results.getValues(), formatParsed(val), previousElements, currentLine, prefixLength + i);
     // add the completed line
     results.getLines().add(currentLine);
     return results;
@@ -1302,6 +2186,9 @@ public class SeparatedString {
 
     private final List<List<String>> lines = new ArrayList<>();
     private final List<String> values = new ArrayList<>();
+    // details for the metrics listener
+    private int escapes = 0;
+    private boolean compiled = false;
 
     public List<List<String>> getLines() {
       return lines;
@@ -1312,7 +2199,10 @@ public class SeparatedString {
     }
   }
 
-  private void checkUniquenessRequirementsAndAdd(List<String> list, String candidate, Set<String> previousEntries, List<String> currentLine) {
+  private void checkUniquenessRequirementsAndAdd(List<String> list, String candidate, Set<String> previousEntries, List<String> currentLine, int offset) {
+    if (maximumFieldsPerLine > 0 && currentLine.size() >= maximumFieldsPerLine) {
+      throw new DecodingLimitException(DecodingLimitException.FIELDS_PER_LINE, maximumFieldsPerLine, offset);
+    }
     if (isUniqueValuesOnly()) {
       if (!previousEntries.contains(candidate)) {
         list.add(candidate);
@@ -1500,11 +2390,13 @@ public class SeparatedString {
 
   public SeparatedString withLineStartSequence(String lineStartSequence) {
     lineStart = lineStartSequence;
+    changed();
     return this;
   }
 
   public SeparatedString withLineEndSequence(String lineEndSequence) {
     this.lineEnd = lineEndSequence;
+    changed();
     return this;
   }
 
@@ -1531,8 +2423,133 @@ public class SeparatedString {
     return ClosedLoop.NotLoop.equals(closedLoop);
   }
 
+  /**
+   * Instructs the SeparatedString to format and escape large numbers of values using several threads.
+   *
+   * <p>
+   * Values are split into chunks which are formatted on the common ForkJoinPool and then joined in order, so the result is identical to the single threaded
+   * encoding. Parallel encoding is used once there are 10,000 values to encode and is never used with {@link #withOnlyUniqueValues() }.</p>
+   *
+   * <p>
+   * Any formatters set with {@link #setFormatFor(java.lang.Class, java.util.function.Function) } must be safe to call from several threads at once.</p>
+   *
+   * @return this SeparatedString
+   */
+  public SeparatedString withParallelEncoding() {
+    return withParallelEncoding(DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Instructs the SeparatedString to format and escape large numbers of values using several threads.
+   *
+   * <p>
+   * Values are split into chunks which are formatted on the common ForkJoinPool and then joined in order, so the result is identical to the single threaded
+   * encoding. Parallel encoding is never used with {@link #withOnlyUniqueValues() }.</p>
+   *
+   * @param minimumValues the number of values to be encoded before parallel encoding is used, zero or less disables parallel encoding
+   * @return this SeparatedString
+   */
+  public SeparatedString withParallelEncoding(int minimumValues) {
+    this.parallelThreshold = Math.max(0, minimumValues);
+    changed();
+    return this;
+  }
+
+  protected int getParallelThreshold() {
+    return parallelThreshold;
+  }
+
+  /**
+   * Limits the length of each value found while decoding.
+   *
+   * @param maximum the maximum number of characters in a value, zero or less for no limit
+   * @return this SeparatedString
+   */
+  public SeparatedString withMaximumFieldLength(int maximum) {
+    this.maximumFieldLength = Math.max(0, maximum);
+    changed();
+    return this;
+  }
+
+  /**
+   * Limits the number of values found on each line while decoding.
+   *
+   * @param maximum the maximum number of values on each line, zero or less for no limit
+   * @return this SeparatedString
+   */
+  public SeparatedString withMaximumFieldsPerLine(int maximum) {
+    this.maximumFieldsPerLine = Math.max(0, maximum);
+    changed();
+    return this;
+  }
+
+  /**
+   * Limits the number of lines found while decoding.
+   *
+   * @param maximum the maximum number of lines, zero or less for no limit
+   * @return this SeparatedString
+   */
+  public SeparatedString withMaximumLines(int maximum) {
+    this.maximumLines = Math.max(0, maximum);
+    changed();
+    return this;
+  }
+
+  /**
+   * Limits the length of the input accepted for decoding.
+   *
+   * @param maximum the maximum number of characters in the input, zero or less for no limit
+   * @return this SeparatedString
+   */
+  public SeparatedString withMaximumInputLength(int maximum) {
+    this.maximumInputLength = Math.max(0, maximum);
+    changed();
+    return this;
+  }
+
+  public int getMaximumFieldLength() {
+    return maximumFieldLength;
+  }
+
+  public int getMaximumFieldsPerLine() {
+    return maximumFieldsPerLine;
+  }
+
+  public int getMaximumLines() {
+    return maximumLines;
+  }
+
+  public int getMaximumInputLength() {
+    return maximumInputLength;
+  }
+
+  /**
+   * Converts a limit to a value that can be compared directly, so that checking the limit during decoding is a single comparison.
+   *
+   * @param limit the limit, zero for no limit
+   * @return the limit, or Integer.MAX_VALUE if there is no limit
+   */
+  static int limitOrMaximum(int limit) {
+    return limit > 0 ? limit : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Reports each encode and decode operation to the listener.
+   *
+   * <p>
+   * Nothing is measured when there is no listener, which is the default.</p>
+   *
+   * @param listener receives the measurements of each operation, null removes the current listener
+   * @return this SeparatedString
+   */
+  public SeparatedString withMetrics(CodecMetrics listener) {
+    this.metrics = listener;
+    return this;
+  }
+
   protected SeparatedString withNoLoop() {
     closedLoop = ClosedLoop.NotLoop;
+    changed();
     return this;
   }
 
@@ -438,4 +438,50 @@ public class BuilderTest {
     MatcherAssert.assertThat(separatedString.getEscapeChar(), is(""));
   }
 
+  @Test
+  public void testTemplate() {
+    Builder builder = Builder.byCommas().withKeyValueSeparator("=");
+    RecordTemplate template = builder.template("host", "port", "user");
+    MatcherAssert.assertThat(template.encode("localhost", 8080, null), is("host=localhost,port=8080,user="));
+    MatcherAssert.assertThat(template.getKeys(), arrayContaining("host", "port", "user"));
+
+    builder.separatedBy(";");
+    MatcherAssert.assertThat(template.encode("localhost", 8080, "me"), is("host=localhost,port=8080,user=me"));
+  }
+
+  @Test
+  public void testTemplateMatchesEncoder() {
+    final Builder[] builders = new Builder[]{
+      Builder.byCommasWithQuotedTermsAndBackslashEscape().withKeyValueSeparator(":").withPrefix("{").withSuffix("}"),
+      Builder.csv().withKeyValueSeparator("=").withBlanksTrimmed(),
+      Builder.byCommas().withKeyValueSeparator("=").withClosedLoop(),
+      Builder.byCommas().withKeyValueSeparator("=").withOnlyUniqueValues()
+    };
+    final String[] keys = new String[]{"say \"hi\"", "b,c", " d "};
+    final Object[] values = new Object[]{"\"hi\"", Instant.EPOCH, " padded "};
+    for (Builder builder : builders) {
+      Encoder encoder = builder.encoder();
+      for (int i = 0; i < keys.length; i++) {
+        encoder.add(keys[i], values[i]);
+      }
+      MatcherAssert.assertThat(builder.template(keys).encode(values), is(encoder.encode()));
+    }
+  }
+
+  @Test
+  public void testTemplateCanBeSharedBetweenThreads() {
+    RecordTemplate template = Builder.csv().withKeyValueSeparator("=").template("id", "name");
+    final String expected = "\"id=7\", \"name=a \\\"b\\\"\"";
+    long matching = java.util.stream.IntStream.range(0, 10_000).parallel()
+            .mapToObj((i) -> template.encode(7, "a \"b\""))
+            .filter(expected::equals)
+            .count();
+    MatcherAssert.assertThat(matching, is(10_000L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTemplateRequiresAValueForEachKey() {
+    Builder.byCommas().withKeyValueSeparator("=").template("host", "port").encode("localhost");
+  }
+
 }
@@ -31,6 +31,7 @@
 package nz.co.gregs.separatedstring;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -315,6 +316,136 @@ public class DecoderTest {
     
   }
 
+  @Test
+  public void testMetricsReportEachDecoding() {
+    List<CodecMetrics.Operation> operations = new java.util.ArrayList<>();
+    Decoder decoder = Builder.csv()
+            .withLineEndSequence("\n")
+            .withMetrics(new CodecMetrics() {
+              @Override
+              public void decoded(CodecMetrics.Operation operation) {
+                operations.add(operation);
+              }
+            })
+            .decoder();
+    String input = "\"alice\", \"bob \\\"the builder\\\"\"\n\"claire\"";
+    List<List<String>> lines = decoder.decodeToLines(input);
+    assertThat(lines.size(), is(2));
+    assertThat(operations.size(), is(1));
+    CodecMetrics.Operation operation = operations.get(0);
+    assertThat(operation.getCharsIn(), is((long) input.length()));
+    assertThat(operation.getCharsOut(), is(28L));
+    assertThat(operation.getFields(), is(3));
+    assertThat(operation.getLines(), is(2));
+    assertThat(operation.getEscapes(), is(2));
+    assertThat(operation.getEngine(), is(CodecMetrics.Engine.COMPILED));
+  }
+
+  @Test
+  public void testMaximumFieldLength() {
+    // the general decoder is used when there is a prefix
+    for (String prefix : new String[]{"", "<"}) {
+      Decoder decoder = Builder.csv().withPrefix(prefix).withMaximumFieldLength(5).decoder();
+      assertThat(decoder.decode(prefix + "\"abcde\", \"b\""), contains("abcde", "b"));
+      DecodingLimitException exception = decodeExpectingLimit(decoder, prefix + "\"a\", \"unterminated, \"value");
+      assertThat(exception.getLimitName(), is("maximum field length"));
+      assertThat(exception.getLimit(), is(5));
+      assertThat(exception.getOffset(), is(prefix.length() + 11));
+    }
+  }
+
+  @Test
+  public void testMaximumFieldsPerLine() {
+    // the general decoder is used when there is a prefix
+    for (String prefix : new String[]{"", "<"}) {
+      Decoder decoder = Builder.byCommas().withPrefix(prefix).withLineEndSequence("\n").withMaximumFieldsPerLine(2).decoder();
+      assertThat(decoder.decodeToLines(prefix + "a,b\nc,d").size(), is(2));
+      DecodingLimitException exception = decodeExpectingLimit(decoder, prefix + "a,b\nc,d,e,f");
+      assertThat(exception.getLimitName(), is("maximum fields per line"));
+      assertThat(exception.getOffset(), is(prefix.length() + 9));
+    }
+  }
+
+  @Test
+  public void testMaximumLines() {
+    // the general decoder is used when there is a prefix
+    for (String prefix : new String[]{"", "<"}) {
+      Decoder decoder = Builder.byCommas().withPrefix(prefix).withLineEndSequence("\n").withMaximumLines(2).decoder();
+      assertThat(decoder.decodeToLines(prefix + "a\nb").size(), is(2));
+      DecodingLimitException exception = decodeExpectingLimit(decoder, prefix + "a\nb\nc\nd");
+      assertThat(exception.getLimitName(), is("maximum lines"));
+      assertThat(exception.getOffset(), is(prefix.length() + 3));
+    }
+  }
+
+  @Test
+  public void testMaximumInputLength() {
+    Decoder decoder = Builder.byCommas().withMaximumInputLength(5).decoder();
+    assertThat(decoder.decode("a,b,c"), contains("a", "b", "c"));
+    DecodingLimitException exception = decodeExpectingLimit(decoder, "a,b,c,d");
+    assertThat(exception.getLimitName(), is("maximum input length"));
+    assertThat(exception.getOffset(), is(5));
+    assertThat(exception.getMessage(), is("Unable to decode the input: the maximum input length of 5 was exceeded at offset 5"));
+  }
+
+  @Test
+  public void testCompiledAndGeneralParsersReportTheSameLimitOffsets() {
+    final Map<String, Builder> limits = new HashMap<>();
+    limits.put("maximum field length", Builder.csv().withMaximumFieldLength(5));
+    limits.put("maximum fields per line", Builder.byCommas().withLineEndSequence("\n").withMaximumFieldsPerLine(2));
+    limits.put("maximum lines", Builder.byCommas().withLineEndSequence("\n").withMaximumLines(2));
+    limits.put("maximum input length", Builder.byCommas().withMaximumInputLength(5));
+    final Map<String, String> inputs = Map.of(
+            "maximum field length", "\"a\", \"unterminated, \"value",
+            "maximum fields per line", "a,b\nc,d,e,f",
+            "maximum lines", "a\nb\nc\nd",
+            "maximum input length", "a,b,c,d");
+    for (Map.Entry<String, Builder> limit : limits.entrySet()) {
+      final List<CodecMetrics.Operation> operations = new ArrayList<>();
+      final CodecMetrics listener = new CodecMetrics() {
+        @Override
+        public void decoded(CodecMetrics.Operation operation) {
+          operations.add(operation);
+        }
+      };
+      Decoder compiled = limit.getValue().withMetrics(listener).decoder();
+      // a formatter for the parsed values can't be applied by the compiled parser so the general parser is used
+      Decoder general = limit.getValue().decoder().builder().setFormatFor(StringBuilder.class, StringBuilder::toString).decoder();
+      compiled.decode("a");
+      general.decode("a");
+      assertThat(operations.get(0).getEngine(), is(CodecMetrics.Engine.COMPILED));
+      assertThat(operations.get(1).getEngine(), is(CodecMetrics.Engine.GENERAL));
+
+      final String input = inputs.get(limit.getKey());
+      DecodingLimitException fromCompiled = decodeExpectingLimit(compiled, input);
+      DecodingLimitException fromGeneral = decodeExpectingLimit(general, input);
+      assertThat(fromCompiled.getLimitName(), is(limit.getKey()));
+      assertThat(fromGeneral.getLimitName(), is(limit.getKey()));
+      assertThat(limit.getKey(), fromGeneral.getOffset(), is(fromCompiled.getOffset()));
+    }
+  }
+
+  private static DecodingLimitException decodeExpectingLimit(Decoder decoder, String input) {
+    try {
+      decoder.decodeToLines(input);
+    } catch (DecodingLimitException exception) {
+      return exception;
+    }
+    throw new AssertionError("the input should have exceeded a limit: " + input);
+  }
+
+  @Test
+  public void testHierarchyFormattersDoNotApplyToDecodedValues() {
+    Builder builder = Builder.byCommas().setFormatFor(java.io.Serializable.class, (o) -> "S" + o);
+    Encoder encoder = builder.encoder();
+    encoder.containing(1, 2.5);
+    assertThat(encoder.encode(), is("S1,S2.5"));
+    assertThat(builder.decoder().decodeToList(encoder.encode()), is(List.of("S1", "S2.5")));
+
+    Builder csv = Builder.csv().setFormatFor(Object.class, (o) -> "?").setFormatFor(CharSequence.class, (o) -> "chars");
+    assertThat(csv.decoder().decodeToList("\"a\", \"b\""), is(List.of("a", "b")));
+  }
+
 //  @Test
 //  public void testAddAll() {
 //    Encoder encoder = Builder.start().separatedBy("~").encoder();
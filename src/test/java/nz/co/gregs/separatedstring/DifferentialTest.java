@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import nz.co.gregs.separatedstring.ReferenceSeparatedString.Keyed;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import org.junit.Test;
+
+/**
+ * Checks the optimised encoders and decoders against the {@link ReferenceSeparatedString} using randomly generated settings and values.
+ *
+ * <p>
+ * Every failure reports the seed of the case so it can be reproduced with {@link #checkEncoding(long)} or {@link #checkDecoding(long)}.</p>
+ *
+ * @author gregorygraham
+ */
+public class DifferentialTest {
+
+  private static final int CASES = 400;
+  private static final long SEED = 20261018L;
+
+  private static final String[] SEPARATORS = {",", ", ", "\t", "|", "::", " AND ", ";"};
+  private static final String[][] WRAPS = {{"", ""}, {"\"", "\""}, {"'", "'"}, {"<", ">"}, {"[[", "]]"}};
+  // the general decoder never finishes with one sided wrapping so these are only used for encoding
+  private static final String[][] ONE_SIDED_WRAPS = {{"\"", ""}, {"", "\""}};
+  private static final String[] ESCAPES = {"", "\\", "\\\\", "~"};
+  private static final String[] PREFIXES = {"", "<<", "START:"};
+  private static final String[] SUFFIXES = {"", ">>", ":END"};
+  private static final String[] KEY_VALUE_SEPARATORS = {"", "=", ":"};
+  private static final String[] LINE_ENDS = {"", "\n", ";\n"};
+  private static final String[] LINE_STARTS = {"", "> "};
+  private static final String[] EMPTY_VALUES = {"", "EMPTY"};
+  private static final String ALPHABET = "abcAND ,;:|\"'<>[]\\~=\t\n";
+
+  public DifferentialTest() {
+  }
+
+  @Test
+  public void testEncodingMatchesReference() {
+    final Random seeds = new Random(SEED);
+    for (int i = 0; i < CASES; i++) {
+      checkEncoding(seeds.nextLong());
+    }
+  }
+
+  @Test
+  public void testDecodingMatchesReference() {
+    final Random seeds = new Random(SEED + 1);
+    for (int i = 0; i < CASES; i++) {
+      checkDecoding(seeds.nextLong());
+    }
+  }
+
+  @Test
+  public void testRoundTrips() {
+    final Random seeds = new Random(SEED + 2);
+    for (int i = 0; i < CASES; i++) {
+      checkRoundTrip(seeds.nextLong());
+    }
+  }
+
+  /**
+   * Encodes random entries with every encoding path and compares them to the reference.
+   */
+  private static void checkEncoding(long seed) {
+    final Random random = new Random(seed);
+    final SeparatedString settings = randomSettings(random);
+    if (random.nextInt(10) == 0) {
+      final String[] wrap = pick(random, ONE_SIDED_WRAPS);
+      settings.withEachTermWrappedWith(wrap[0], wrap[1]);
+    }
+    final List<Object> entries = randomEntries(random, settings);
+    final List<Object> flattened = flatten(entries);
+    final String reason = "seed " + seed + " " + settings.describe();
+    final String expected = outcome(() -> new ReferenceSeparatedString(settings).encode(flattened));
+
+    assertThat(reason + " (encode)", outcome(() -> addAll(SeparatedString.copy(settings), entries).toString()), is(expected));
+    final SeparatedString appended = SeparatedString.copy(settings);
+    final List<Object> firstHalf = entries.subList(0, entries.size() / 2);
+    assertThat(reason + " (first half)", outcome(() -> addAll(appended, firstHalf).toString()),
+            is(outcome(() -> new ReferenceSeparatedString(settings).encode(flatten(firstHalf)))));
+    assertThat(reason + " (append)", outcome(() -> addAll(appended, entries.subList(firstHalf.size(), entries.size())).toString()), is(expected));
+    assertThat(reason + " (parallel)", outcome(() -> addAll(SeparatedString.copy(settings).withParallelEncoding(1), entries).toString()), is(expected));
+
+    if (entries.stream().noneMatch(entry -> entry instanceof Keyed || entry instanceof Line)) {
+      final SeparatedFormat format = new Builder(SeparatedString.copy(settings)).compile();
+      assertThat(reason + " (values)", outcome(() -> SeparatedString.copy(settings).encode(entries)), is(expected));
+      assertThat(reason + " (format)", outcome(() -> format.encode(entries)), is(expected));
+      assertThat(reason + " (encodeTo)", outcome(() -> format.encodeTo(new StringBuilder(), entries).toString()), is(expected));
+      if (!entries.isEmpty()) {
+        assertThat(reason + " (encodeEach)", outcome(() -> format.encodeEach(Collections.singletonList(entries))[0]), is(expected));
+      }
+    }
+    if (!entries.isEmpty() && entries.stream().allMatch(entry -> entry instanceof Keyed)) {
+      final String[] keys = entries.stream().map(entry -> ((Keyed) entry).key).toArray(String[]::new);
+      final Object[] values = entries.stream().map(entry -> ((Keyed) entry).value).toArray();
+      assertThat(reason + " (template)", outcome(() -> new Builder(SeparatedString.copy(settings)).template(keys).encode(values)), is(expected));
+    }
+  }
+
+  /**
+   * Decodes the reference encoding of random entries, and random text, with every decoding path and compares them to the reference.
+   */
+  private static void checkDecoding(long seed) {
+    final Random random = new Random(seed);
+    final SeparatedString settings = randomSettings(random);
+    final List<Object> entries = flatten(randomEntries(random, settings));
+    final List<String> inputs = Arrays.asList(
+            outcome(() -> new ReferenceSeparatedString(settings).encode(entries)),
+            randomString(random, 30));
+    final SeparatedFormat format = new Builder(SeparatedString.copy(settings)).compile();
+    for (String input : inputs) {
+      final String reason = "seed " + seed + " input \"" + input + "\" " + settings.describe();
+      final String expected = outcome(() -> new ReferenceSeparatedString(settings).parse(input));
+      assertThat(reason + " (decode)", outcome(() -> SeparatedString.copy(settings).parseToLines(input)), is(expected));
+      assertThat(reason + " (format)", outcome(() -> format.decodeToLines(input)), is(expected));
+      assertThat(reason + " (list)", outcome(() -> format.decodeToList(input)),
+              is(outcome(() -> flatten(new ArrayList<>(new ReferenceSeparatedString(settings).parse(input))))));
+    }
+  }
+
+  /**
+   * Encodes and decodes random values with settings that can represent any value, which must produce the original values.
+   */
+  private static void checkRoundTrip(long seed) {
+    final Random random = new Random(seed);
+    final Builder builder = Builder.forSeparator(pick(random, ",", "|", "\t", ";", ", "))
+            .withEscapeChar(pick(random, "\\", "~"));
+    if (random.nextBoolean()) {
+      builder.withEachTermPrecededAndFollowedWith("\"");
+    }
+    final SeparatedFormat format = builder.compile();
+    final List<String> values = new ArrayList<>();
+    final int count = 1 + random.nextInt(10);
+    for (int i = 0; i < count; i++) {
+      // decoding drops leading spaces, and line endings are not escaped, so values start with a letter and are on one line
+      values.add("abc".charAt(random.nextInt(3)) + randomString(random, 8).replace("\n", ""));
+    }
+    final String encoded = format.encode(values);
+    assertThat("seed " + seed + " encoded \"" + encoded + "\"", format.decode(encoded), is(values));
+  }
+
+  private static SeparatedString randomSettings(Random random) {
+    final Builder builder = Builder.forSeparator(pick(random, SEPARATORS));
+    final String[] wrap = WRAPS[random.nextInt(WRAPS.length)];
+    builder.withEachTermWrappedWith(wrap[0], wrap[1])
+            .withEscapeChar(pick(random, ESCAPES))
+            .withPrefix(pick(random, PREFIXES))
+            .withSuffix(pick(random, SUFFIXES))
+            .withKeyValueSeparator(pick(random, KEY_VALUE_SEPARATORS))
+            .withLineEndSequence(pick(random, LINE_ENDS))
+            .withLineStartSequence(pick(random, LINE_STARTS))
+            .withEmptyStringAs(pick(random, EMPTY_VALUES));
+    switch (random.nextInt(6)) {
+      case 0:
+        builder.withClosedLoop();
+        break;
+      case 1:
+        builder.withOpenLoop();
+        break;
+      default:
+    }
+    if (random.nextInt(5) == 0) {
+      builder.withOnlyUniqueValues();
+    }
+    if (random.nextInt(5) == 0) {
+      builder.withBlanksTrimmed();
+    }
+    if (random.nextInt(4) == 0) {
+      builder.withNullsAs(pick(random, "null", "NULL", ""));
+    }
+    return builder.getSeparatedString();
+  }
+
+  private static List<Object> randomEntries(Random random, SeparatedString settings) {
+    final List<Object> entries = new ArrayList<>();
+    final int count = random.nextInt(12);
+    final int style = random.nextInt(4);
+    for (int i = 0; i < count; i++) {
+      if (style == 1) {
+        entries.add(new Keyed(randomString(random, 4), randomValue(random)));
+      } else if (style == 2 && !settings.getLineEnd().isEmpty() && random.nextInt(3) == 0) {
+        final Object[] values = new Object[random.nextInt(4)];
+        for (int j = 0; j < values.length; j++) {
+          values[j] = randomValue(random);
+        }
+        entries.add(new Line(values));
+      } else {
+        entries.add(randomValue(random));
+      }
+    }
+    return entries;
+  }
+
+  private static Object randomValue(Random random) {
+    switch (random.nextInt(10)) {
+      case 0:
+        return null;
+      case 1:
+        return random.nextInt(2000) - 1000;
+      case 2:
+        return random.nextLong();
+      case 3:
+        return pick(random, 0.0, -0.0, 1.5, -2.25e-10, 3.0e300, Double.NaN, Double.NEGATIVE_INFINITY);
+      case 4:
+        return pick(random, 1.5f, -0.0f, Float.MAX_VALUE);
+      case 5:
+        return random.nextBoolean();
+      default:
+        return randomString(random, 8);
+    }
+  }
+
+  private static String randomString(Random random, int maximumLength) {
+    final int length = random.nextInt(maximumLength + 1);
+    final StringBuilder result = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      result.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return result.toString();
+  }
+
+  @SafeVarargs
+  private static <T> T pick(Random random, T... choices) {
+    return choices[random.nextInt(choices.length)];
+  }
+
+  /**
+   * Adds the entries using the methods specialised for each type so that the primitive storage is included.
+   */
+  private static SeparatedString addAll(SeparatedString target, List<Object> entries) {
+    for (Object entry : entries) {
+      if (entry instanceof Keyed) {
+        target.add(((Keyed) entry).key, ((Keyed) entry).value);
+      } else if (entry instanceof Line) {
+        target.addLine(((Line) entry).values);
+      } else if (entry instanceof Integer) {
+        target.add((int) (Integer) entry);
+      } else if (entry instanceof Long) {
+        target.add((long) (Long) entry);
+      } else if (entry instanceof Double) {
+        target.add((double) (Double) entry);
+      } else if (entry instanceof Float) {
+        target.add((float) (Float) entry);
+      } else if (entry instanceof Boolean) {
+        target.add((boolean) (Boolean) entry);
+      } else {
+        target.add(entry);
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Converts the entries into the form used by the reference, and the lines of values into a single list.
+   */
+  private static List<Object> flatten(List<?> entries) {
+    final List<Object> flattened = new ArrayList<>();
+    for (Object entry : entries) {
+      if (entry instanceof Line) {
+        flattened.add(ReferenceSeparatedString.LINE_START);
+        flattened.addAll(Arrays.asList(((Line) entry).values));
+        flattened.add(ReferenceSeparatedString.LINE_END);
+      } else if (entry instanceof List) {
+        flattened.addAll((List<?>) entry);
+      } else {
+        flattened.add(entry);
+      }
+    }
+    return flattened;
+  }
+
+  /**
+   * The result, or the exception thrown, as a String so that failures of both implementations can be compared.
+   */
+  private static String outcome(Supplier<Object> operation) {
+    try {
+      return String.valueOf(operation.get());
+    } catch (RuntimeException ex) {
+      return "threw " + ex.getClass().getSimpleName();
+    }
+  }
+
+  private static final class Line {
+
+    final Object[] values;
+
+    Line(Object[] values) {
+      this.values = values;
+    }
+  }
+}
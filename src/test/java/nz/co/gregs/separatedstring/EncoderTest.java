@@ -34,6 +34,7 @@ import java.awt.Color;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -156,6 +157,41 @@ public class EncoderTest {
     assertThat(encoder.encode(List.of("blert   ", "blirt", "  end  of list")), is("blert,blirt,end  of list"));
   }
 
+  @Test
+  public void testEncodeValuesDoesNotChangeEncoder() {
+    Encoder encoder = Builder.csv().withClosedLoop().encoder();
+    encoder.addAll("red", "green");
+    assertThat(encoder.encode("1", "2", "3"), is("\"1\", \"2\", \"3\", \"1\""));
+    assertThat(encoder.encode(List.of(1, "a,b", Instant.EPOCH)), is("\"1\", \"a,b\", \"1970-01-01T00:00:00Z\", \"1\""));
+    assertThat(encoder.encode(), is("\"red\", \"green\", \"red\""));
+    assertThat(encoder.encode(new String[]{}), is(""));
+  }
+
+  @Test
+  public void testEncodeEach() {
+    Encoder encoder = Builder.csv().withClosedLoop().encoder();
+    encoder.addAll("red", "green");
+    final List<List<?>> rows = new ArrayList<>();
+    rows.add(List.of("1", 2, "a,b"));
+    rows.add(List.of());
+    rows.add(List.of(Instant.EPOCH));
+    rows.add(List.of("x", "y"));
+    final String[] encoded = encoder.encodeEach(rows);
+    assertThat(encoded, arrayContaining(
+            "\"1\", \"2\", \"a,b\", \"1\"",
+            "",
+            "\"1970-01-01T00:00:00Z\"",
+            "\"x\", \"y\", \"x\""));
+    for (int i = 0; i < encoded.length; i++) {
+      assertThat(encoded[i], is(encoder.encode(new ArrayList<>(rows.get(i)))));
+    }
+    assertThat(encoder.encode(), is("\"red\", \"green\", \"red\""));
+
+    final List<String> streamed = new ArrayList<>();
+    Builder.byCommas().withOnlyUniqueValues().encoder().encodeEach(List.of(List.of("a", "b", "a"), List.of("a", "c")), streamed::add);
+    assertThat(streamed, contains("a,b", "a,c"));
+  }
+
   @Test
   public void testAddStringString() {
     Encoder encoder = Builder.start().withOnlyUniqueValues().withKeyValueSeparator("=").encoder();
@@ -368,6 +404,168 @@ public class EncoderTest {
     assertThat(encoder.encode(), is("java.awt.Color[r=255,g=0,b=0] java.awt.Color[r=0,g=255,b=0] java.awt.Color[r=0,g=0,b=255] java.awt.Color[r=255,g=0,b=0] java.awt.Color[r=0,g=0,b=0] java.awt.Color[r=255,g=0,b=0]"));
   }
 
+  @Test
+  public void testParallelEncoding() {
+    final Builder[] builders = new Builder[]{
+      Builder.csv(),
+      Builder.byCommas().withClosedLoop(),
+      Builder.byCommas().withOpenLoop(),
+      Builder.byCommas().withOnlyUniqueValues()
+    };
+    for (Builder builder : builders) {
+      Encoder sequential = builder.encoder();
+      Encoder parallel = builder.encoder().builder().withParallelEncoding(1000).encoder();
+      assertThat(parallel.getSeparatedString().getParallelThreshold(), is(1000));
+      for (Encoder encoder : new Encoder[]{sequential, parallel}) {
+        encoder.add("first");
+        for (int i = 0; i < 20000; i++) {
+          if (i % 777 == 0) {
+            encoder.addLine("line", "" + i);
+          } else if (i % 5 == 0) {
+            encoder.add(i);
+          } else {
+            encoder.add("value, " + (i % 3000));
+          }
+        }
+      }
+      assertThat(parallel.encode(), is(sequential.encode()));
+      sequential.add("first");
+      parallel.add("first");
+      assertThat(parallel.encode(), is(sequential.encode()));
+    }
+  }
+
+  @Test
+  public void testMixedEntriesAreInsertedRemovedAndCopied() {
+    Encoder encoder = Builder.byCommas().withKeyValueSeparator("=").withLineEndSequence(";").encoder();
+    encoder.add("a", 1).add(2).addLine("x", "y").add(3.5).add(true);
+    encoder.add(1, "inserted");
+    encoder.addAll(0, List.of("first", "second"));
+    assertThat(encoder.encode(), is("first,second,a=1,inserted,2x,y;3.5,true"));
+    encoder.remove(1);
+    assertThat(encoder.encode(), is("first,a=1,inserted,2x,y;3.5,true"));
+    assertThat(encoder.builder().encoder().encode(), is(encoder.encode()));
+  }
+
+  @Test
+  public void testForkedEncodersAreIndependent() {
+    Encoder original = Builder.byCommas().withKeyValueSeparator("=").encoder();
+    original.addAll("a", "b").add("k", "v").add(1);
+    Encoder fork = original.builder().encoder();
+    Encoder removed = original.builder().encoder();
+    original.add("original");
+    fork.add(0, "fork").add(2.5);
+    removed.removeAll("a", "k");
+    assertThat(original.encode(), is("a,b,k=v,1,original"));
+    assertThat(fork.encode(), is("fork,a,b,k=v,1,2.5"));
+    assertThat(removed.encode(), is("b,1"));
+    assertThat(original.decoder().decode("x,y"), contains("x", "y"));
+  }
+
+  @Test
+  public void testOriginalKeepsItsArraysAfterAFork() throws ReflectiveOperationException {
+    EntryStore original = new EntryStore();
+    original.insert(0, List.of("a", "b", "c"));
+    final Object arrays = kindsArrayOf(original);
+
+    // appending is invisible to a fork so the original never copies to append
+    EntryStore unchanged = original.copy();
+    original.add("d");
+    assertThat(kindsArrayOf(original), is(sameInstance(arrays)));
+    assertThat(unchanged.toString(), is("[a, b, c]"));
+
+    // changing existing entries copies while the fork still uses the arrays
+    EntryStore fork = original.copy();
+    fork.add("fork");
+    assertThat(kindsArrayOf(fork), is(not(sameInstance(arrays))));
+    unchanged.remove(0);
+    assertThat(kindsArrayOf(unchanged), is(not(sameInstance(arrays))));
+
+    // once the forks have their own arrays the original changes its entries in place
+    original.remove(0);
+    original.add("e");
+    assertThat(kindsArrayOf(original), is(sameInstance(arrays)));
+    assertThat(original.toString(), is("[b, c, d, e]"));
+    assertThat(fork.toString(), is("[a, b, c, d, fork]"));
+    assertThat(unchanged.toString(), is("[b, c]"));
+
+    EntryStore shared = original.copy();
+    original.remove(0);
+    assertThat(kindsArrayOf(original), is(not(sameInstance(arrays))));
+    assertThat(shared.toString(), is("[b, c, d, e]"));
+    assertThat(original.toString(), is("[c, d, e]"));
+  }
+
+  @Test
+  public void testForksChangedOnDifferentThreadsLeaveTheOriginalItsArrays() throws ReflectiveOperationException {
+    EntryStore original = new EntryStore();
+    original.insert(0, List.of("a", "b", "c"));
+    final Object arrays = kindsArrayOf(original);
+    List<EntryStore> forks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      forks.add(original.copy());
+    }
+    forks.parallelStream().forEach((fork) -> fork.add("fork"));
+    // every fork has taken its own arrays so the count is back to zero and the original changes its entries in place
+    original.remove(0);
+    assertThat(kindsArrayOf(original), is(sameInstance(arrays)));
+    assertThat(original.toString(), is("[b, c]"));
+    for (EntryStore fork : forks) {
+      assertThat(fork.toString(), is("[a, b, c, fork]"));
+    }
+  }
+
+  private static Object kindsArrayOf(EntryStore store) throws ReflectiveOperationException {
+    final java.lang.reflect.Field field = EntryStore.class.getDeclaredField("kinds");
+    field.setAccessible(true);
+    return field.get(store);
+  }
+
+  @Test
+  public void testAddPrimitives() {
+    Encoder encoder = Builder.csv().encoder();
+    encoder.add(1).add(2L).add(3.5).add(4.25f).add(true).add('c');
+    assertThat(encoder.encode(), is("\"1\", \"2\", \"3.5\", \"4.25\", \"true\", \"c\""));
+
+    encoder = Builder.byCommas().encoder();
+    encoder.addAll(new int[]{1, 2, 3}).addAll(new long[]{Long.MAX_VALUE}).addAll(new double[]{0.5, Double.NaN});
+    assertThat(encoder.encode(), is("1,2,3,9223372036854775807,0.5,NaN"));
+  }
+
+  @Test
+  public void testAddPrimitivesWithFormatterAndEscaping() {
+    Encoder encoder = Builder.byCommas()
+            .setFormatFor(Integer.class, (i) -> "#" + i)
+            .encoder();
+    encoder.add(1).add(2L).addAll(new int[]{3, 4});
+    assertThat(encoder.encode(), is("#1,2,#3,#4"));
+
+    encoder = Builder.forSeparator("0").withEscapeChar("\\").encoder();
+    encoder.add(10).add(20.5).add(3);
+    assertThat(encoder.encode(), is("1\\002\\0.503"));
+    assertThat(encoder.decoder().decodeToList(encoder.encode()), is(List.of("10", "20.5", "3")));
+  }
+
+  @Test
+  public void testSetFormatForSuperclassesAndInterfaces() {
+    Encoder encoder = Builder.byCommas()
+            .setFormatFor(Number.class, (n) -> "#" + n)
+            .setFormatFor(Long.class, (n) -> "L" + n)
+            .setFormatFor(java.time.temporal.TemporalAccessor.class, (t) -> "TIME")
+            .encoder();
+    encoder.containing(1, 2L, 3.5, new java.math.BigDecimal("4.0"), Instant.EPOCH, "text");
+    encoder.add(5).add(6L);
+    assertThat(encoder.encode(), is("#1,L2,#3.5,#4.0,TIME,text,#5,L6"));
+
+    SeparatedString separatedString = encoder.getSeparatedString();
+    assertThat(separatedString.getFormatterFor(7), is(notNullValue()));
+    assertThat(separatedString.getFormatterFor("text"), is(nullValue()));
+
+    encoder = Builder.byCommas().setFormatFor(Object.class, (o) -> "?").setFormatFor(CharSequence.class, (o) -> "chars").encoder();
+    encoder.containing(1, "text", new StringBuilder("builder"));
+    assertThat(encoder.encode(), is("?,chars,chars"));
+  }
+
   @Test
   public void testContainingObjectArray() {
     Builder builder = Builder.start();
@@ -493,6 +691,68 @@ public class EncoderTest {
     assertThat(encoder.encode(), is(""));
   }
 
+  @Test
+  public void testEncodeIsRetainedUntilChanged() {
+    Encoder encoder = Builder.byCommas().encoder();
+    encoder.addAll("red", "green", "blue");
+    final String encoded = encoder.encode();
+    assertThat(encoded, is("red,green,blue"));
+    assertThat(encoder.encode(), is(sameInstance(encoded)));
+    assertThat(encoder.toString(), is(sameInstance(encoded)));
+
+    encoder.containing(Instant.EPOCH);
+    assertThat(encoder.encode(), is("red,green,blue,1970-01-01T00:00:00Z"));
+
+    encoder.getSeparatedString().setFormatFor(Instant.class, (d) -> "EPOCH");
+    assertThat(encoder.encode(), is("red,green,blue,EPOCH"));
+
+    encoder.getSeparatedString().separatedBy("|");
+    assertThat(encoder.encode(), is("red|green|blue|EPOCH"));
+
+    encoder.remove(3);
+    assertThat(encoder.encode(), is("red|green|blue"));
+
+    encoder.removeAll("green");
+    assertThat(encoder.encode(), is("red|blue"));
+  }
+
+  @Test
+  public void testEncodeAfterAppending() {
+    Encoder encoder = Builder.csv().encoder();
+    encoder.addAll("red", "green");
+    assertThat(encoder.encode(), is("\"red\", \"green\""));
+    encoder.add("blue");
+    assertThat(encoder.encode(), is("\"red\", \"green\", \"blue\""));
+    encoder.addLine("cyan", "magenta");
+    assertThat(encoder.encode(), is("\"red\", \"green\", \"blue\"" + "\"cyan\", \"magenta\"" + System.lineSeparator()));
+    encoder.add("key", "yellow");
+    assertThat(encoder.encode(), is("\"red\", \"green\", \"blue\"" + "\"cyan\", \"magenta\"" + System.lineSeparator() + "\"key=yellow\""));
+
+    encoder = Builder.byCommas().withClosedLoop().encoder();
+    encoder.addAll("1", "2");
+    assertThat(encoder.encode(), is("1,2,1"));
+    encoder.add("1");
+    assertThat(encoder.encode(), is("1,2,1"));
+    encoder.add("3");
+    assertThat(encoder.encode(), is("1,2,1,3,1"));
+
+    encoder = Builder.byCommas().withOpenLoop().encoder();
+    encoder.addAll("1", "2");
+    assertThat(encoder.encode(), is("1,2"));
+    encoder.add("1");
+    assertThat(encoder.encode(), is("1,2"));
+    encoder.add("3");
+    assertThat(encoder.encode(), is("1,2,1,3"));
+
+    encoder = Builder.byCommas().withOnlyUniqueValues().encoder();
+    encoder.addAll("1", "2");
+    assertThat(encoder.encode(), is("1,2"));
+    encoder.add("1");
+    assertThat(encoder.encode(), is("1,2"));
+    encoder.add(0, "3");
+    assertThat(encoder.encode(), is("3,1,2"));
+  }
+
   @Test
   public void testWithEmptyStringAs() {
     Builder builder = Builder.start();
@@ -688,4 +948,105 @@ public class EncoderTest {
     assertThat(separatedString.getEscapeChar(), is(""));
   }
 
+  @Test
+  public void testMetricsReportEachEncoding() {
+    List<CodecMetrics.Operation> operations = new ArrayList<>();
+    Encoder encoder = Builder.csv()
+            .withLineEndSequence("\n")
+            .withMetrics(new CodecMetrics() {
+              @Override
+              public void encoded(CodecMetrics.Operation operation) {
+                operations.add(operation);
+              }
+            })
+            .encoder();
+    String encoded = encoder.encode("alice", "bob \"the builder\"", "claire");
+    assertThat(operations.size(), is(1));
+    CodecMetrics.Operation operation = operations.get(0);
+    assertThat(operation.getFields(), is(3));
+    assertThat(operation.getLines(), is(1));
+    assertThat(operation.getEscapes(), is(1));
+    assertThat(operation.getCharsIn(), is(28L));
+    assertThat(operation.getCharsOut(), is((long) encoded.length()));
+    assertThat(operation.getNanos(), greaterThanOrEqualTo(0L));
+    assertThat(operation.getEngine(), is(CodecMetrics.Engine.COMPILED));
+    assertThat(operation.getFingerprint(), is(Builder.csv().withLineEndSequence("\n").getSeparatedString().getFingerprint()));
+    assertThat(operation.getFingerprint(), not(Builder.csv().getSeparatedString().getFingerprint()));
+
+    encoder.addLine("a", "b").addLine("c").encode();
+    assertThat(operations.size(), is(2));
+    assertThat(operations.get(1).getFields(), is(3));
+    assertThat(operations.get(1).getLines(), is(2));
+    assertThat(operations.get(1).getEscapes(), is(0));
+  }
+
+  @Test
+  public void testMetricsReportCachedIncrementalAndTemplateEncodings() {
+    List<CodecMetrics.Operation> operations = new ArrayList<>();
+    Builder builder = Builder.byCommas()
+            .withKeyValueSeparator("=")
+            .withEscapeChar("\\")
+            .withMetrics(new CodecMetrics() {
+              @Override
+              public void encoded(CodecMetrics.Operation operation) {
+                operations.add(operation);
+              }
+            });
+    Encoder encoder = builder.encoder();
+    encoder.addAll("a", "b,c");
+    String first = encoder.encode();
+    assertThat(operations.get(0).getFields(), is(2));
+    assertThat(operations.get(0).getEscapes(), is(1));
+
+    // an unchanged encoder returns the previous encoding but still reports it
+    assertThat(encoder.encode(), is(sameInstance(first)));
+    assertThat(operations.size(), is(2));
+    assertThat(operations.get(1).getEngine(), is(CodecMetrics.Engine.CACHED));
+    assertThat(operations.get(1).getFields(), is(2));
+    assertThat(operations.get(1).getCharsOut(), is((long) first.length()));
+
+    // appending only renders the new value but reports the whole encoding
+    String second = encoder.add("d").encode();
+    assertThat(operations.size(), is(3));
+    assertThat(operations.get(2).getFields(), is(3));
+    assertThat(operations.get(2).getEscapes(), is(1));
+    assertThat(operations.get(2).getCharsIn(), is(5L));
+    assertThat(operations.get(2).getCharsOut(), is((long) second.length()));
+
+    // templates report whether or not their fragments are precomputed
+    RecordTemplate template = builder.template("host", "port");
+    assertThat(template.encode("local,host", 8080), is("host=local\\,host,port=8080"));
+    RecordTemplate unique = builder.withOnlyUniqueValues().template("host", "port");
+    assertThat(unique.encode("local,host", 8080), is("host=local\\,host,port=8080"));
+    assertThat(operations.size(), is(5));
+    for (CodecMetrics.Operation operation : operations.subList(3, 5)) {
+      assertThat(operation.getFields(), is(2));
+      assertThat(operation.getLines(), is(1));
+      assertThat(operation.getEscapes(), is(1));
+      assertThat(operation.getCharsIn(), is(8L + 10 + 4));
+      assertThat(operation.getCharsOut(), is(26L));
+    }
+  }
+
+  @Test
+  public void testMetricsReportTheEngineOfEachIncrementalRender() {
+    List<CodecMetrics.Operation> operations = new ArrayList<>();
+    Encoder encoder = Builder.byCommas()
+            .withParallelEncoding(100)
+            .withMetrics(new CodecMetrics() {
+              @Override
+              public void encoded(CodecMetrics.Operation operation) {
+                operations.add(operation);
+              }
+            })
+            .encoder();
+    for (int i = 0; i < 200; i++) {
+      encoder.add(i);
+    }
+    encoder.encode();
+    assertThat(operations.get(0).getEngine(), is(CodecMetrics.Engine.PARALLEL));
+    encoder.add(200).encode();
+    assertThat(operations.get(1).getEngine(), is(not(CodecMetrics.Engine.PARALLEL)));
+    assertThat(operations.get(1).getFields(), is(201));
+  }
 }
@@ -1,11 +1,14 @@
 package nz.co.gregs.separatedstring;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.chrono.Chronology;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import static org.hamcrest.MatcherAssert.*;
@@ -185,4 +188,148 @@ public class HTMLTableStringTest {
     }
     
   }
+
+  @Test
+  public void testWriterMatchesTableString() throws IOException {
+    DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.of("UTC"));
+    HTMLTableString table = new HTMLTableString();
+    table.setFormatFor(Instant.class, (t) -> formatter.format(t));
+    StringWriter out = new StringWriter();
+    try (HTMLTableWriter writer = new HTMLTableWriter(out)) {
+      writer.setFormatFor(Instant.class, (t) -> formatter.format(t));
+      table.withNullsAs("&nbsp;").withNullsRetained(true);
+      writer.withNullsAs("&nbsp;").withNullsRetained(true);
+      assertThat(writer.getNullRepresentation(), is("&nbsp;"));
+      assertThat(writer.getRetainNulls(), is(true));
+      assertThat(writer.isEmpty(), is(true));
+      table.addLine("1", 2, Instant.EPOCH, null);
+      writer.addLine("1", 2, Instant.EPOCH, null);
+      assertThat(out.toString(), is("<table>\n<tr><td>1</td><td>2</td><td>1970-01-01</td><td>&nbsp;</td></tr>\n"));
+      table.addLine();
+      writer.addLine();
+      table.addLine("Alice", null, "Cindy");
+      writer.addLine("Alice", null, "Cindy");
+    }
+    assertThat(out.toString(), is(table.encode()));
+    assertThat(out.toString(), endsWith("<tr><td>Alice</td><td>&nbsp;</td><td>Cindy</td></tr>\n</table>\n"));
+  }
+
+  @Test
+  public void testWriterWithoutRowsWritesNothing() throws IOException {
+    StringWriter out = new StringWriter();
+    new HTMLTableWriter(out).close();
+    assertThat(out.toString(), is(new HTMLTableString().encode()));
+    assertThat(out.toString(), is(""));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWriterRejectsRowsAfterClose() throws IOException {
+    HTMLTableWriter writer = new HTMLTableWriter(new StringWriter());
+    writer.addLine("1");
+    writer.close();
+    writer.addLine("2");
+  }
+
+  @Test
+  public void testParseToLinesRoundTrip(){
+    HTMLTableString table = new HTMLTableString();
+    table.addLine();
+    table.addLine("a", "", "c");
+    table.addLine("x < y", "<b>bold</b>");
+    List<List<String>> lines = table.parseToLines(table.encode());
+    List<List<String>> expected = List.of(List.of(), List.of("a", "", "c"), List.of("x < y", "<b>bold</b>"));
+    assertThat(lines, is(expected));
+  }
+
+  @Test
+  public void testParseToLinesKeepsUnescapedLessThanInCells(){
+    HTMLTableString table = new HTMLTableString();
+    table.addLine("a<b", "c");
+    table.addLine("1", "x<y");
+    table.addLine("<tdx>", "a <b>bold</b> <!-- c", "<trash");
+    List<List<String>> lines = table.parseToLines(table.encode());
+    assertThat(lines.size(), is(3));
+    assertThat(lines.get(0), contains("a<b", "c"));
+    assertThat(lines.get(1), contains("1", "x<y"));
+    assertThat(lines.get(2), contains("<tdx>", "a <b>bold</b> <!-- c", "<trash"));
+  }
+
+  @Test
+  public void testParseToLinesToleratesHTMLVariations(){
+    HTMLTableString table = new HTMLTableString();
+    String html = "<TABLE class=\"report\">\n"
+            + "  <thead>\n    <tr style='color: red'><th scope=\"col\">Name</th> <TH>Count</TH></tr>\n  </thead>\n"
+            + "  <!-- <tr><td>commented out</td></tr> -->\n"
+            + "  <tbody>\n    <tr>\n      <td title=\"a > b\">Alice</td>\n      <td>2</td>\n    </tr>\n"
+            + "    <tr><td>Bob<td><table><tr><td>inner</td></tr></table>\n"
+            + "  </tbody>\n</table>\n";
+    List<List<String>> lines = table.parseToLines(html);
+    List<List<String>> expected = List.of(
+            List.of("Name", "Count"),
+            List.of("Alice", "2"),
+            List.of("Bob", "<table><tr><td>inner</td></tr></table>\n  "));
+    assertThat(lines, is(expected));
+  }
+
+  @Test
+  public void testParseRowsStreamsEachRow(){
+    HTMLTableString table = new HTMLTableString();
+    table.addLine("1", 2);
+    table.addLine("3", 4);
+    List<List<String>> rows = new ArrayList<>();
+    table.parseRows(table.encode(), rows::add);
+    List<List<String>> expected = List.of(List.of("1", "2"), List.of("3", "4"));
+    assertThat(rows, is(expected));
+    rows.clear();
+    table.parseRows("", rows::add);
+    assertThat(rows, is(empty()));
+  }
+
+  @Test
+  public void testHTMLEscaping(){
+    HTMLTableString table = new HTMLTableString();
+    table.addLine("Fish & Chips", "<script>", null, 5);
+    assertThat(table.encode(), is("<table>\n<tr><td>Fish & Chips</td><td><script></td><td></td><td>5</td></tr>\n</table>\n"));
+    table.withHTMLEscaping(true).withNullsAs("&nbsp;");
+    assertThat(table.getHTMLEscaping(), is(true));
+    table.addLine("\"quoted\" 'single'", "plain");
+    String encode = table.encode();
+    assertThat(encode, is("<table>\n"
+            + "<tr><td>Fish &amp; Chips</td><td>&lt;script&gt;</td><td>&nbsp;</td><td>5</td></tr>\n"
+            + "<tr><td>&quot;quoted&quot; &#39;single&#39;</td><td>plain</td></tr>\n"
+            + "</table>\n"));
+    List<List<String>> lines = table.parseToLines(encode);
+    List<List<String>> expected = List.of(
+            List.of("Fish & Chips", "<script>", "\u00A0", "5"),
+            List.of("\"quoted\" 'single'", "plain"));
+    assertThat(lines, is(expected));
+    List<List<String>> numeric = List.of(List.of("AB'&unknown;&amp"));
+    assertThat(table.parseToLines("<table><tr><td>&#x41;&#66;&apos;&unknown;&amp</td></tr></table>"), is(numeric));
+  }
+
+  @Test
+  public void testHTMLEscapingOnlyCopiesValuesThatNeedIt(){
+    String plain = "nothing to escape";
+    assertThat(HTMLEscaper.escape(plain), is(sameInstance(plain)));
+    assertThat(HTMLEscaper.unescape(plain), is(sameInstance(plain)));
+    assertThat(HTMLEscaper.escape("a<b"), is("a&lt;b"));
+    assertThat(HTMLEscaper.unescape(HTMLEscaper.escape("<&>\"'")), is("<&>\"'"));
+    assertThat(HTMLEscaper.unescape("&#x10FFFF;&#1114112;&verylongname;"), is("\uDBFF\uDFFF&#1114112;&verylongname;"));
+    // ampersands without semicolons are left alone, and scanned in linear time
+    char[] ampersands = new char[1_000_000];
+    java.util.Arrays.fill(ampersands, '&');
+    String many = new String(ampersands);
+    assertThat(HTMLEscaper.unescape(many + "&amp;"), is(many + "&"));
+  }
+
+  @Test
+  public void testWriterHTMLEscaping() throws IOException {
+    StringWriter out = new StringWriter();
+    try (HTMLTableWriter writer = new HTMLTableWriter(out)) {
+      writer.withHTMLEscaping(true);
+      assertThat(writer.getHTMLEscaping(), is(true));
+      writer.addLine("a&b", 1);
+    }
+    assertThat(out.toString(), is("<table>\n<tr><td>a&amp;b</td><td>1</td></tr>\n</table>\n"));
+  }
 }
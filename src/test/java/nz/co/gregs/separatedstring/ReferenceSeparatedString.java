@@ -0,0 +1,330 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The original, unoptimised, encoding and decoding of SeparatedString kept as the reference for the optimised implementations.
+ *
+ * <p>
+ * The logic of toString() and parse() is preserved as it was before any of the optimisations so that {@link DifferentialTest} can check that every
+ * optimised path still produces exactly the same results. Only the settings are read from the SeparatedString. Do not optimise this class.</p>
+ *
+ * @author gregorygraham
+ */
+final class ReferenceSeparatedString {
+
+  /**
+   * Marks the start of a line within the entries to be encoded.
+   */
+  static final Object LINE_START = new Object();
+  /**
+   * Marks the end of a line within the entries to be encoded.
+   */
+  static final Object LINE_END = new Object();
+
+  /**
+   * A key and value within the entries to be encoded.
+   */
+  static final class Keyed {
+
+    final String key;
+    final Object value;
+
+    Keyed(String key, Object value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private final SeparatedString settings;
+
+  ReferenceSeparatedString(SeparatedString settings) {
+    this.settings = settings;
+  }
+
+  /**
+   * The original SeparatedString.toString().
+   *
+   * @param allTheEntries values, {@link Keyed} values, {@link #LINE_START}, and {@link #LINE_END}
+   * @return the encoding
+   */
+  String encode(List<?> allTheEntries) {
+    List<String> previousElements = new ArrayList<>(0);
+    if (allTheEntries.isEmpty()) {
+      return settings.getEmptyValue();
+    } else {
+      StringBuilder strs = new StringBuilder();
+      String sep = "";
+
+      String currentEntry = "";
+      String firstEntry = null;
+      for (Object entry : allTheEntries) {
+        // Handle the 2 special cases first
+        if (entry == LINE_END) {
+          // END OF LINE
+          strs.append(settings.getLineEnd());
+          sep = "";
+        } else if (entry == LINE_START) {
+          // START OF LINE
+          strs.append(settings.getLineStart());
+          sep = "";
+        } else {
+          // now get the formatted value
+          String entryString = formatStringEntry(entry);
+          if (settings.isUniqueValuesOnly() && previousElements.contains(entryString)) {
+            // this has already occurred so skip to the next loop
+            break;
+          } else {
+            // in all other cases store the value for future reference
+            previousElements.add(entryString);
+          }
+          // Apply wrapping
+          currentEntry = settings.getWrapBefore() + entryString + settings.getWrapAfter();
+          // Store the first entry for use with looping
+          if (firstEntry == null) {
+            firstEntry = currentEntry;
+          }
+          // Append the separator (which may be blank) and the wrapped value to the ultimate result
+          strs.append(sep).append(currentEntry);
+          sep = settings.getSeparator();
+        }
+      }
+
+      if (settings.isClosedLoop() && firstEntry != null && !firstEntry.equals(currentEntry)) {
+        strs.append(sep).append(firstEntry);
+      }
+
+      String infix = strs.toString();
+      if (settings.isOpenLoop() && firstEntry != null && firstEntry.equals(currentEntry)) {
+        infix = infix.replaceAll(sep + currentEntry + "$", "");
+      }
+      return settings.getPrefix() + infix + settings.getSuffix();
+    }
+  }
+
+  private String formatStringEntry(Object element) {
+    StringBuilder build = new StringBuilder();
+    if (element instanceof Keyed) {
+      final Keyed keyed = (Keyed) element;
+      build.append(replaceSequencesInString(keyed.key));
+      build.append(settings.getKeyValueSeparator());
+      build.append(formatEntryValue(keyed.value));
+    } else {
+      build.append(formatEntryValue(element));
+    }
+    return build.toString();
+  }
+
+  private String formatEntryValue(Object value) {
+    return replaceSequencesInString(format(value));
+  }
+
+  private String format(Object object) {
+    String result;
+    if (object == null) {
+      // there is no object so just report it as empty or null
+      if (settings.getRetainNulls()) {
+        result = settings.getNullRepresentation();
+      } else {
+        result = settings.getEmptyValue();
+      }
+    } else {
+      result = object.toString();
+    }
+    return result;
+  }
+
+  private List<String[]> getCtrlSequences() {
+    final String escapeChar = settings.getEscapeChar();
+    List<String[]> list = new ArrayList<>(8);
+    // the escape sequence needs to be first so we don't escape our own escapes
+    list.add(new String[]{escapeChar, escapeChar + escapeChar});
+    list.add(new String[]{settings.getSeparator(), escapeChar + settings.getSeparator()});
+    list.add(new String[]{settings.getKeyValueSeparator(), escapeChar + settings.getKeyValueSeparator()});
+    list.add(new String[]{settings.getPrefix(), escapeChar + settings.getPrefix()});
+    list.add(new String[]{settings.getSuffix(), escapeChar + settings.getSuffix()});
+    list.add(new String[]{settings.getEmptyValue(), escapeChar + settings.getEmptyValue()});
+    list.add(new String[]{settings.getWrapAfter(), escapeChar + settings.getWrapAfter()});
+    list.add(new String[]{settings.getWrapBefore(), escapeChar + settings.getWrapBefore()});
+    // the original stored the sequences in a MapList which ignores empty keys and keys that have already been added
+    final List<String[]> unique = new ArrayList<>(list.size());
+    for (String[] pair : list) {
+      boolean found = pair[0].isEmpty();
+      for (String[] existing : unique) {
+        found |= existing[0].equals(pair[0]);
+      }
+      if (!found) {
+        unique.add(pair);
+      }
+    }
+    return unique;
+  }
+
+  private String replaceSequencesInString(String s) {
+    if (s == null) {
+      return s;
+    } else {
+      String result = s;
+      for (String[] seq : getCtrlSequences()) {
+        final String seqKey = seq[0];
+        if (seqKey != null && !seqKey.isEmpty()) {
+          String value = seq[1];
+          if (value == null || value.isEmpty()) {
+            value = "";
+          }
+          result = result.replace(seqKey, value);
+        }
+      }
+      if (settings.isTrimBlanks()) {
+        result = result.replaceAll("^ *", "");
+        result = result.replaceAll(" *$", "");
+      }
+      return result;
+    }
+  }
+
+  /**
+   * The original SeparatedString.parse().
+   *
+   * @param input the encoded values
+   * @return the lines of values found
+   */
+  List<List<String>> parse(String input) {
+    List<List<String>> lines = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    Set<String> previousElements = new HashSet<>(0);
+    if (input == null || input.isEmpty()) {
+      return lines;
+    }
+    String line = input;
+    if (settings.hasPrefix()) {
+      line = line.replaceAll("^" + settings.getPrefix(), "");
+    }
+    if (settings.hasSuffix()) {
+      line = line.replaceAll(settings.getSuffix() + "$", "");
+    }
+    // we'll be scanning through the line so we need to collect the characters as we go
+    StringBuilder val = new StringBuilder();
+    List<String> currentLine = new ArrayList<>(0);
+    boolean isInValue = false;
+    boolean isInQuotes = false;
+    boolean isInEscape = false;
+    final boolean hasEscapeChar = settings.hasEscapeChar();
+    final String escapeSeq = settings.getEscapeChar();
+    boolean hasQuoting = settings.hasWrapping();
+    final String quoteStart = settings.getWrapBefore();
+    final String quoteEnd = settings.getWrapAfter();
+    boolean quotesAreEqual = quoteStart.equals(quoteEnd);
+    final String separatorString = settings.getSeparator();
+    final String lineEndString = settings.getLineEnd();
+    final String lineStartString = settings.getLineStart();
+    // loop through all the characters
+    int i = 0;
+    while (i < line.length()) {
+      char chr = line.charAt(i);
+      String str = line.substring(i);
+      if (isInEscape) {
+        val.append(chr);
+        isInEscape = false;
+      } else if (hasEscapeChar && str.startsWith(escapeSeq)) {
+        isInEscape = true;
+        i = i + escapeSeq.length() - 1;
+      } else if (!isInEscape && !isInQuotes && !isInValue && lineStartString.length() > 0 && str.startsWith(lineStartString)) {
+        i = i + lineStartString.length() - 1;
+      } else if (hasQuoting && str.startsWith(quoteStart)) {
+        if (quotesAreEqual) {
+          isInQuotes = !isInQuotes;
+        } else if (!isInQuotes) {
+          isInQuotes = true;
+        }
+        i = i + quoteStart.length() - 1;
+      } else if (hasQuoting && str.startsWith(quoteEnd)) {
+        if (quotesAreEqual) {
+          isInQuotes = !isInQuotes;
+        } else if (isInQuotes) {
+          isInQuotes = false;
+        }
+        if (separatorString.length() == 0) {
+          add(values, val.toString(), previousElements, currentLine);
+          val = new StringBuilder();
+        }
+        i = i + quoteEnd.length() - 1;
+      } else if (separatorString.length() > 0 && str.startsWith(separatorString)) {
+        if (isInQuotes) {
+          val.append(separatorString);
+        } else if (isInValue) {
+          isInValue = false;
+          add(values, val.toString(), previousElements, currentLine);
+          val = new StringBuilder();
+        } else {
+          add(values, "", previousElements, currentLine);
+        }
+        i = i + separatorString.length() - 1;
+      } else if (!lineEndString.isEmpty() && str.startsWith(lineEndString)) {
+        isInValue = false;
+        add(values, val.toString(), previousElements, currentLine);
+        val = new StringBuilder();
+        lines.add(currentLine);
+        currentLine = new ArrayList<>(0);
+        i = i + lineEndString.length() - 1;
+      } else if (chr == ' ') {
+        if (isInValue) {
+          val.append(chr);
+        }
+      } else {
+        isInValue = true;
+        val.append(chr);
+      }
+      i++;
+    }
+    add(values, val.toString(), previousElements, currentLine);
+    lines.add(currentLine);
+    return lines;
+  }
+
+  private void add(List<String> list, String candidate, Set<String> previousEntries, List<String> currentLine) {
+    if (settings.isUniqueValuesOnly()) {
+      if (!previousEntries.contains(candidate)) {
+        list.add(candidate);
+        currentLine.add(candidate);
+        previousEntries.add(candidate);
+      }
+    } else {
+      list.add(candidate);
+      currentLine.add(candidate);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Gregory Graham.
+ *
+ * Commercial licenses are available, please contact info@gregs.co.nz for details.
+ * 
+ * This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International License. 
+ * To view a copy of this license, visit http://creativecommons.org/licenses/by-nc-sa/4.0/ 
+ * or send a letter to Creative Commons, PO Box 1866, Mountain View, CA 94042, USA.
+ * 
+ * You are free to:
+ *     Share - copy and redistribute the material in any medium or format
+ *     Adapt - remix, transform, and build upon the material
+ * 
+ *     The licensor cannot revoke these freedoms as long as you follow the license terms.               
+ *     Under the following terms:
+ *                 
+ *         Attribution - 
+ *             You must give appropriate credit, provide a link to the license, and indicate if changes were made. 
+ *             You may do so in any reasonable manner, but not in any way that suggests the licensor endorses you or your use.
+ *         NonCommercial - 
+ *             You may not use the material for commercial purposes.
+ *         ShareAlike - 
+ *             If you remix, transform, or build upon the material, 
+ *             you must distribute your contributions under the same license as the original.
+ *         No additional restrictions - 
+ *             You may not apply legal terms or technological measures that legally restrict others from doing anything the 
+ *             license permits.
+ * 
+ * Check the Creative Commons website for any details, legalese, and updates.
+ */
+package nz.co.gregs.separatedstring;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author gregorygraham
+ */
+public class SeparatedFormatTest {
+
+  private static final SeparatedFormat CSV = Builder.csv().compile();
+
+  public SeparatedFormatTest() {
+  }
+
+  @Test
+  public void testEncode() {
+    assertThat(CSV.encode("a", 1, "b,c"), is("\"a\", \"1\", \"b,c\""));
+    assertThat(CSV.encode(List.of("a", 1)), is("\"a\", \"1\""));
+    assertThat(CSV.encode(), is(""));
+  }
+
+  @Test
+  public void testEncodeTo() throws IOException {
+    StringBuilder builder = new StringBuilder("values: ");
+    assertThat(CSV.encodeTo(builder, List.of("a", "b")).toString(), is("values: \"a\", \"b\""));
+
+    StringWriter writer = new StringWriter();
+    SeparatedFormat closedLoop = Builder.byCommas().withClosedLoop().compile();
+    closedLoop.encodeTo((Appendable) writer, List.of("a", "b"));
+    assertThat(writer.toString(), is("a,b,a"));
+  }
+
+  @Test
+  public void testDecode() {
+    assertThat(CSV.decode("\"a\", \"1\", \"b,c\""), contains("a", "1", "b,c"));
+    assertThat(CSV.decodeToArray("\"a\", \"1\""), arrayContaining("a", "1"));
+    SeparatedFormat keyValues = Builder.byCommas().withKeyValueSeparator("=").compile();
+    assertThat(keyValues.decodeToMap("a=1,b=2"), allOf(hasEntry("a", "1"), hasEntry("b", "2")));
+  }
+
+  @Test
+  public void testFormatIsNotChangedByItsBuilder() {
+    Builder builder = Builder.byCommas().setFormatFor(Instant.class, (t) -> "then");
+    SeparatedFormat format = builder.compile();
+    builder.separatedBy(";").setFormatFor(Instant.class, (t) -> "now");
+    assertThat(format.encode("a", Instant.EPOCH), is("a,then"));
+    assertThat(format.builder().withPrefix("(").withSuffix(")").compile().encode("a"), is("(a)"));
+    assertThat(format.encode("a"), is("a"));
+  }
+
+  @Test
+  public void testSharedBetweenThreads() throws Exception {
+    final SeparatedFormat format = Builder.byCommasWithQuotedTermsAndBackslashEscape().compile();
+    final String expected = format.encoder().containing("a\"b", 1, 2.5).encode();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        results.add(executor.submit(() -> {
+          boolean allMatched = true;
+          for (int j = 0; j < 1000; j++) {
+            final String encoded = format.encode("a\"b", 1, 2.5);
+            allMatched &= encoded.equals(expected) && format.decode(encoded).equals(List.of("a\"b", "1", "2.5"));
+          }
+          return allMatched;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertThat(result.get(), is(true));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDialects() {
+    assertThat(Dialect.CSV.format(), sameInstance(Dialect.CSV.format()));
+    for (Dialect dialect : Dialect.values()) {
+      assertThat(dialect.format().encode("a", "b c", 3), is(dialect.encoder().containing("a", "b c", 3).encode()));
+    }
+    assertThat(Dialect.CSV.format().encode("a", "b"), is(Builder.csv().encoder().encode("a", "b")));
+    assertThat(Dialect.HTML_ORDERED_LIST.format().encode("a", "b"), is(Builder.htmlOrderedList().encoder().encode("a", "b")));
+    assertThat(Dialect.CSV.builder().withPrefix("[").compile().encode("a"), is("[\"a\""));
+    assertThat(Dialect.CSV.format().encode("a"), is("\"a\""));
+  }
+
+  @Test
+  public void testNamedFormatStatistics() throws Exception {
+    SeparatedFormat format = Builder.csv()
+            .setFormatFor(Thread.class, thread -> {
+              throw new IllegalStateException("threads can't be encoded");
+            })
+            .compile("statistics test");
+    FormatStatistics statistics = format.getStatistics();
+    try {
+      format.encode("a", "b \"c\"");
+      format.decode("\"a\", \"b\"");
+      try {
+        format.encode(Thread.currentThread());
+      } catch (IllegalStateException expected) {
+      }
+      format.encoder().encode("not", "counted");
+
+      assertThat(statistics.getEncodings(), is(1L));
+      assertThat(statistics.getDecodings(), is(1L));
+      assertThat(statistics.getErrors(), is(1L));
+      assertThat(statistics.getFields(), is(4L));
+      assertThat(statistics.getEscapes(), is(1L));
+      assertThat(statistics.getCharsIn(), is(6L + 8L));
+      assertThat(statistics.getCompiledRate(), is(1.0));
+      assertThat(java.util.Arrays.stream(statistics.getLatencyHistogram()).sum(), is(2L));
+      assertThat(statistics.getLatencyBuckets().length, is(statistics.getLatencyHistogram().length));
+      assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(statistics.getObjectName(), "Encodings"), is(1L));
+
+      statistics.reset();
+      assertThat(statistics.getEncodings(), is(0L));
+    } finally {
+      statistics.unregister();
+    }
+    assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(statistics.getObjectName()), is(false));
+    assertThat(CSV.getStatistics(), nullValue());
+  }
+}
@@ -33,6 +33,7 @@ package nz.co.gregs.separatedstring;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.Random;
 import java.util.function.Function;
 import org.hamcrest.MatcherAssert;
 import static org.hamcrest.Matchers.*;
@@ -283,5 +284,38 @@ public class SeparatedStringTest {
     MatcherAssert.assertThat(separatedString.getPrefix(), is("~"));
   }
 
+  @Test
+  public void testCompiledParsingMatchesGeneralParsing() {
+    final Builder[] builders = new Builder[]{
+      Builder.csv(),
+      Builder.tsv(),
+      Builder.byCommasWithQuotedTermsAndBackslashEscape().withOnlyUniqueValues(),
+      Builder.byCommas().withLineEndSequence("\n"),
+      Builder.bySpaces().withThisBeforeEachTerm("<").withThisAfterEachTerm(">").withEscapeChar("\\\\")
+    };
+    final Random random = new Random(38);
+    final String alphabet = "ab ,\"\\\n\t<>=";
+    for (Builder builder : builders) {
+      final Decoder compiled = builder.decoder();
+      // a formatter for the parsed values forces the general parser
+      final Decoder general = builder.decoder().builder().setFormatFor(StringBuilder.class, StringBuilder::toString).decoder();
+      for (int i = 0; i < 500; i++) {
+        final StringBuilder input = new StringBuilder();
+        for (int j = random.nextInt(20); j > 0; j--) {
+          input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        MatcherAssert.assertThat(input.toString(), compiled.decodeToLines(input.toString()), is(general.decodeToLines(input.toString())));
+        MatcherAssert.assertThat(input.toString(), compiled.decodeToList(input.toString()), is(general.decodeToList(input.toString())));
+      }
+    }
+  }
 
+  @Test
+  public void testCompiledEscaping() {
+    Encoder encoder = Builder.csv().encoder();
+    MatcherAssert.assertThat(encoder.encode("plain", "a\\b", "say \"hi\"", "x, y", "k=v"), is("\"plain\", \"a\\\\b\", \"say \\\"hi\\\"\", \"x\\, y\", \"k\\=v\""));
+    // overlapping tokens are escaped one after the other by the general implementation
+    encoder = Builder.forSeparator("ab").withThisBeforeEachTerm("b").withThisAfterEachTerm("b").withEscapeChar("!").encoder();
+    MatcherAssert.assertThat(encoder.encode("abc", "x!"), is("b!a!bcb" + "ab" + "bx!!b"));
+  }
 }